@@ -0,0 +1,43 @@
+/*
+ * Copyright (C) 2025 Team 3602 All rights reserved. This work is
+ * licensed under the terms of the MIT license which can be found
+ * in the root directory of this project.
+ */
+
+package frc.team3602.robot;
+
+import edu.wpi.first.hal.AllianceStationID;
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.simulation.DriverStationSim;
+import edu.wpi.first.wpilibj.simulation.SimHooks;
+
+/**
+ * Brings up the HAL sim for benchmarks, the same way the headless auto sim
+ * does: timing paused, driver station attached and enabled in teleop.
+ */
+final class BenchmarkSim {
+  private static boolean started = false;
+
+  private BenchmarkSim() {
+  }
+
+  /** Safe to call from every benchmark's setup, only the first call does anything. */
+  static synchronized void start() {
+    if (started) {
+      return;
+    }
+    if (!HAL.initialize(500, 0)) {
+      throw new IllegalStateException("Failed to initialize the HAL");
+    }
+    SimHooks.pauseTiming();
+
+    DriverStationSim.setAllianceStationId(AllianceStationID.Blue1);
+    DriverStationSim.setDsAttached(true);
+    DriverStationSim.setAutonomous(false);
+    DriverStationSim.setEnabled(true);
+    DriverStationSim.notifyNewData();
+    DriverStation.refreshData();
+    started = true;
+  }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (C) 2025 Team 3602 All rights reserved. This work is
+ * licensed under the terms of the MIT license which can be found
+ * in the root directory of this project.
+ */
+
+package frc.team3602.robot;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import frc.team3602.robot.generated.TunerConstants;
+import frc.team3602.robot.subsystems.ClimberIOSim;
+import frc.team3602.robot.subsystems.ClimberSubsystem;
+import frc.team3602.robot.subsystems.DrivetrainSubsystem;
+import frc.team3602.robot.subsystems.ElevatorIOSim;
+import frc.team3602.robot.subsystems.ElevatorSubsystem;
+import frc.team3602.robot.subsystems.IntakeIOSim;
+import frc.team3602.robot.subsystems.IntakeSubsystem;
+import frc.team3602.robot.subsystems.PivotIOSim;
+import frc.team3602.robot.subsystems.PivotSubsystem;
+
+/**
+ * Every subsystem's periodic and the mechanism control math, against the sim
+ * devices. Returned values go back to JMH so nothing gets optimized away.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SubsystemBenchmark {
+  private DrivetrainSubsystem drivetrain;
+  private ElevatorSubsystem elevator;
+  private PivotSubsystem pivot;
+  private IntakeSubsystem intake;
+  private ClimberSubsystem climber;
+
+  @Setup
+  public void setup() {
+    BenchmarkSim.start();
+
+    // Wired up the same way RobotContainer does it
+    drivetrain = TunerConstants.createDrivetrain();
+    elevator = new ElevatorSubsystem(new ElevatorIOSim());
+    pivot = new PivotSubsystem(new PivotIOSim(), elevator.elevatorSimMech.getRoot("Pivot Root", 0.75, 0.7),
+        () -> elevator.elevatorViz.getLength());
+    intake = new IntakeSubsystem(new IntakeIOSim(),
+        elevator.elevatorSimMech.getRoot("Intake Wheel Root", 0.75, 0.3), () -> elevator.elevatorViz.getLength(),
+        () -> Math.toRadians(pivot.getAngleDegrees()));
+    climber = new ClimberSubsystem(new ClimberIOSim());
+    DeviceConfigurator.applyAll().join();
+  }
+
+  @Benchmark
+  public void drivetrainPeriodic() {
+    drivetrain.periodic();
+  }
+
+  @Benchmark
+  public void elevatorPeriodic() {
+    elevator.periodic();
+  }
+
+  @Benchmark
+  public void pivotPeriodic() {
+    pivot.periodic();
+  }
+
+  @Benchmark
+  public void intakePeriodic() {
+    intake.periodic();
+  }
+
+  @Benchmark
+  public void climberPeriodic() {
+    climber.periodic();
+  }
+
+  @Benchmark
+  public double elevatorEffort() {
+    return elevator.getEffort();
+  }
+
+  @Benchmark
+  public double pivotEffort() {
+    return pivot.getEffort();
+  }
+}
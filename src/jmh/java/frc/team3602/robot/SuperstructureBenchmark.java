@@ -0,0 +1,74 @@
+/*
+ * Copyright (C) 2025 Team 3602 All rights reserved. This work is
+ * licensed under the terms of the MIT license which can be found
+ * in the root directory of this project.
+ */
+
+package frc.team3602.robot;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.wpi.first.wpilibj2.command.Command;
+
+import frc.team3602.robot.subsystems.ElevatorIOSim;
+import frc.team3602.robot.subsystems.ElevatorSubsystem;
+import frc.team3602.robot.subsystems.IntakeIOSim;
+import frc.team3602.robot.subsystems.IntakeSubsystem;
+import frc.team3602.robot.subsystems.PivotIOSim;
+import frc.team3602.robot.subsystems.PivotSubsystem;
+
+/** Building the superstructure's commands, which happens on every button press. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SuperstructureBenchmark {
+  private Superstructure superstructure;
+
+  @Setup
+  public void setup() {
+    BenchmarkSim.start();
+
+    var elevator = new ElevatorSubsystem(new ElevatorIOSim());
+    var pivot = new PivotSubsystem(new PivotIOSim(), elevator.elevatorSimMech.getRoot("Pivot Root", 0.75, 0.7),
+        () -> elevator.elevatorViz.getLength());
+    var intake = new IntakeSubsystem(new IntakeIOSim(),
+        elevator.elevatorSimMech.getRoot("Intake Wheel Root", 0.75, 0.3), () -> elevator.elevatorViz.getLength(),
+        () -> Math.toRadians(pivot.getAngleDegrees()));
+    DeviceConfigurator.applyAll().join();
+    superstructure = new Superstructure(elevator, intake, pivot);
+  }
+
+  @Benchmark
+  public Command getCoral() {
+    return superstructure.getCoral();
+  }
+
+  @Benchmark
+  public Command scoreL4Coral() {
+    return superstructure.scoreL4Coral();
+  }
+
+  @Benchmark
+  public Command down() {
+    return superstructure.down();
+  }
+
+  @Benchmark
+  public Command grabAlgaeHigh() {
+    return superstructure.grabAlgaeHigh();
+  }
+}
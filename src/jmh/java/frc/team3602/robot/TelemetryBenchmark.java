@@ -0,0 +1,64 @@
+/*
+ * Copyright (C) 2025 Team 3602 All rights reserved. This work is
+ * licensed under the terms of the MIT license which can be found
+ * in the root directory of this project.
+ */
+
+package frc.team3602.robot;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.ctre.phoenix6.swerve.SwerveDrivetrain.SwerveDriveState;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+import edu.wpi.first.math.kinematics.SwerveModulePosition;
+import edu.wpi.first.math.kinematics.SwerveModuleState;
+
+/** What the odometry thread pays to publish every drive state. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TelemetryBenchmark {
+  private Telemetry telemetry;
+  private final SwerveDriveState state = new SwerveDriveState();
+
+  @Setup
+  public void setup() {
+    BenchmarkSim.start();
+    telemetry = new Telemetry(4.5);
+
+    state.Pose = new Pose2d(3.0, 4.0, Rotation2d.fromDegrees(30.0));
+    state.Speeds = new ChassisSpeeds(1.5, 0.5, 0.8);
+    state.ModuleStates = new SwerveModuleState[4];
+    state.ModuleTargets = new SwerveModuleState[4];
+    state.ModulePositions = new SwerveModulePosition[4];
+    for (int i = 0; i < 4; ++i) {
+      state.ModuleStates[i] = new SwerveModuleState(2.0, Rotation2d.fromDegrees(45.0 * i));
+      state.ModuleTargets[i] = new SwerveModuleState(2.1, Rotation2d.fromDegrees(45.0 * i + 1.0));
+      state.ModulePositions[i] = new SwerveModulePosition(1.0 * i, Rotation2d.fromDegrees(45.0 * i));
+    }
+    state.Timestamp = 1.0;
+    state.OdometryPeriod = 0.01;
+  }
+
+  @Benchmark
+  public void telemeterize() {
+    telemetry.telemeterize(state);
+  }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (C) 2025 Team 3602 All rights reserved. This work is
+ * licensed under the terms of the MIT license which can be found
+ * in the root directory of this project.
+ */
+
+package frc.team3602.robot;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.photonvision.EstimatedRobotPose;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.wpilibj.simulation.SimHooks;
+
+/**
+ * Turning camera results into pose estimates. Before every call the sim
+ * cameras render one new frame from in front of the blue reef, that part
+ * isn't timed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VisionBenchmark {
+  /* One frame at the sim cameras' 20 fps */
+  private static final double kFramePeriod = 0.05;
+
+  private final Pose2d robotPose = new Pose2d(2.5, 4.0, Rotation2d.kZero);
+  private Vision vision;
+
+  @Setup
+  public void setup() {
+    BenchmarkSim.start();
+    vision = new Vision();
+  }
+
+  @Setup(Level.Invocation)
+  public void renderFrame() {
+    SimHooks.stepTiming(kFramePeriod);
+    vision.updateViz(robotPose);
+  }
+
+  @Benchmark
+  public Optional<EstimatedRobotPose> estimateOneCamera() {
+    return vision.getEstimatedPose(1);
+  }
+
+  @Benchmark
+  public int estimateAllCameras() {
+    int estimates = 0;
+    for (int module = 0; module < Vision.kCameraCount; ++module) {
+      if (vision.getEstimatedPose(module).isPresent()) {
+        ++estimates;
+      }
+    }
+    return estimates;
+  }
+}
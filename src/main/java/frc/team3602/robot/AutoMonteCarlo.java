@@ -0,0 +1,128 @@
+/*
+ * Copyright (C) 2025 Team 3602 All rights reserved. This work is
+ * licensed under the terms of the MIT license which can be found
+ * in the root directory of this project.
+ */
+
+package frc.team3602.robot;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import frc.team3602.robot.AutoSimRunner.AutoResult;
+
+/**
+ * Runs every auto many times in the headless sim with random start error,
+ * wheel slip, vision noise and mechanism timing, and reports how often each
+ * one works.
+ * <p>
+ * Run through {@code ./gradlew monteCarloAutos}, with {@code -Pruns=100} for
+ * the number of runs per auto and {@code -Pautos=Center,Left} to only run some
+ * of them. Any {@code -Pautosim.*} setting from {@link SimPerturbation} is
+ * passed on to every run. Runs go in separate JVMs, one per core at a time,
+ * and each run's seed is printed with the worst results so it can be replayed.
+ */
+public final class AutoMonteCarlo {
+  /* A run only counts if it's done in time and where it should be */
+  private static final double kAutoPeriodSeconds = 15.0;
+  private static final double kSuccessMeters = 0.1;
+  private static final double kSuccessDegrees = 5.0;
+  private static final int kWorstRunsShown = 3;
+
+  private AutoMonteCarlo() {
+  }
+
+  private record Run(long seed, AutoResult result) {
+    boolean succeeded() {
+      return result.finished() && result.seconds() <= kAutoPeriodSeconds
+          && !(result.poseErrorMeters() > kSuccessMeters) && !(result.poseErrorDegrees() > kSuccessDegrees);
+    }
+  }
+
+  public static void main(String... args) throws Exception {
+    int runs = Integer.parseInt(System.getProperty("autosim.runs", "50"));
+    List<String> names = new ArrayList<>(List.of(args));
+    if (names.isEmpty()) {
+      names.addAll(AutoSimRunner.listAutos());
+    }
+
+    // Pass our perturbation settings on to every run, each run picks its own
+    // seed
+    List<String> settings = new ArrayList<>(AutoSimRunner.getSettings());
+    settings.removeIf(setting -> setting.startsWith("-Dautosim.seed=") || setting.startsWith("-Dautosim.runs="));
+
+    int threads = Runtime.getRuntime().availableProcessors();
+    System.out.println("Running " + names.size() + " autos " + runs + " times each on " + threads + " cores");
+    long wallStart = System.nanoTime();
+
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    Map<String, List<Future<Run>>> pending = new TreeMap<>();
+    try {
+      for (String name : names) {
+        List<Future<Run>> futures = new ArrayList<>();
+        for (int i = 0; i < runs; ++i) {
+          final long seed = ((long) name.hashCode() << 32) | i;
+          futures.add(executor.submit(() -> {
+            List<String> properties = new ArrayList<>(settings);
+            properties.add("-Dautosim.seed=" + seed);
+            return new Run(seed, AutoSimRunner.runInChild(name, properties));
+          }));
+        }
+        pending.put(name, futures);
+      }
+
+      for (var entry : pending.entrySet()) {
+        List<Run> results = new ArrayList<>();
+        for (Future<Run> future : entry.getValue()) {
+          results.add(future.get());
+        }
+        printSummary(entry.getKey(), results);
+      }
+    } finally {
+      executor.shutdown();
+    }
+
+    System.out.println(String.format("%nDone in %.1f s", (System.nanoTime() - wallStart) / 1e9));
+  }
+
+  private static void printSummary(String name, List<Run> runs) {
+    long successes = runs.stream().filter(Run::succeeded).count();
+    double[] times = runs.stream().filter(run -> run.result().finished())
+        .mapToDouble(run -> run.result().seconds()).sorted().toArray();
+    double[] poseErrors = runs.stream().mapToDouble(run -> run.result().poseErrorMeters())
+        .filter(error -> !Double.isNaN(error)).sorted().toArray();
+
+    System.out.println();
+    System.out.println(String.format("%s: %d/%d succeeded (%.0f%%), %d didn't finish", name, successes, runs.size(),
+        100.0 * successes / runs.size(), runs.size() - times.length));
+    if (times.length > 0) {
+      System.out.println(String.format("    time        p50 %6.2f s  p90 %6.2f s  max %6.2f s",
+          percentile(times, 0.5), percentile(times, 0.9), times[times.length - 1]));
+    }
+    if (poseErrors.length > 0) {
+      System.out.println(String.format("    pose error  p50 %6.3f m  p90 %6.3f m  max %6.3f m",
+          percentile(poseErrors, 0.5), percentile(poseErrors, 0.9), poseErrors[poseErrors.length - 1]));
+    }
+
+    // Unfinished runs first, then the furthest off
+    List<Run> worst = new ArrayList<>(runs);
+    worst.sort(Comparator.comparing((Run run) -> run.result().finished())
+        .thenComparing(run -> -(Double.isNaN(run.result().poseErrorMeters()) ? 0.0
+            : run.result().poseErrorMeters())));
+    for (Run run : worst.subList(0, Math.min(kWorstRunsShown, worst.size()))) {
+      System.out.println(String.format("    worst: seed %d  %s %6.2f s  %.3f m  %.1f deg", run.seed(),
+          run.result().finished() ? "   " : "DNF", run.result().seconds(), run.result().poseErrorMeters(),
+          run.result().poseErrorDegrees()));
+    }
+  }
+
+  private static double percentile(double[] sorted, double fraction) {
+    return sorted[Math.min((int) (fraction * sorted.length), sorted.length - 1)];
+  }
+}
@@ -0,0 +1,311 @@
+/*
+ * Copyright (C) 2025 Team 3602 All rights reserved. This work is
+ * licensed under the terms of the MIT license which can be found
+ * in the root directory of this project.
+ */
+
+package frc.team3602.robot;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import edu.wpi.first.hal.AllianceStationID;
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.RobotController;
+import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.wpilibj.simulation.DriverStationSim;
+import edu.wpi.first.wpilibj.simulation.SimHooks;
+import edu.wpi.first.wpilibj2.command.Command;
+import edu.wpi.first.wpilibj2.command.Commands;
+
+import frc.team3602.robot.pathing.AutoLoader.AutoRoutine;
+import frc.team3602.robot.pathing.AutoLoader.AutoStep;
+import frc.team3602.robot.pathing.AutoLoader.StepType;
+
+/**
+ * Runs autos in a headless sim as fast as the CPU allows.
+ * <p>
+ * Run through {@code ./gradlew simulateAutos}, optionally with
+ * {@code -Pautos=Center,Left} to only run some of them. Every auto gets its own
+ * JVM since the HAL and the command scheduler can only be set up once per
+ * process. Inside, the robot's timing is paused and stepped one 20 ms loop at
+ * a time, so notifiers and the drivetrain sim see the same time the code does
+ * no matter how fast the loop actually runs.
+ * <p>
+ * For each auto we report the total time, the time of every top level step and
+ * how far the robot ended up from the end of the last path. When the child is
+ * given an {@code autosim.seed} it also runs with a {@link SimPerturbation},
+ * see {@link AutoMonteCarlo}.
+ */
+public final class AutoSimRunner {
+  private static final double kLoopPeriod = 0.02;
+  private static final double kTimeoutSeconds = 20.0;
+
+  /* Prefix for the lines a child sends back to the parent */
+  private static final String kResultPrefix = "AUTOSIM\t";
+
+  private AutoSimRunner() {
+  }
+
+  /**
+   * One step of an auto.
+   *
+   * @param label   What the step was
+   * @param seconds How long it took, NaN if it never finished
+   */
+  record SegmentResult(String label, double seconds) {
+  }
+
+  /**
+   * One auto run.
+   *
+   * @param name              Auto name
+   * @param finished          If the auto finished before the timeout
+   * @param seconds           Sim time from enable until the auto finished
+   * @param poseErrorMeters   Distance from the end of the last path
+   * @param poseErrorDegrees  Heading error at the end of the last path
+   * @param wallSeconds       Real time the run took
+   * @param segments          Every top level step in order
+   */
+  record AutoResult(String name, boolean finished, double seconds, double poseErrorMeters,
+      double poseErrorDegrees, double wallSeconds, List<SegmentResult> segments) {
+  }
+
+  public static void main(String... args) throws Exception {
+    if (args.length == 2 && args[0].equals("--child")) {
+      System.exit(runChild(args[1]));
+    }
+
+    List<String> names = new ArrayList<>(List.of(args));
+    if (names.isEmpty()) {
+      names.addAll(listAutos());
+    }
+
+    // Lets a Monte Carlo run be replayed with -Dautosim.seed
+    List<String> settings = getSettings();
+
+    List<AutoResult> results = new ArrayList<>();
+    for (String name : names) {
+      results.add(runInChild(name, settings));
+    }
+    printReport(results);
+  }
+
+  /* Every autosim.* property we were given, as -D arguments for a child */
+  static List<String> getSettings() {
+    List<String> settings = new ArrayList<>();
+    for (String key : System.getProperties().stringPropertyNames()) {
+      if (key.startsWith("autosim.")) {
+        settings.add("-D" + key + "=" + System.getProperty(key));
+      }
+    }
+    return settings;
+  }
+
+  /* Every .auto in the deploy directory, the sim runs from the project root */
+  static List<String> listAutos() {
+    List<String> names = new ArrayList<>();
+    File[] files = new File("src/main/deploy/pathplanner/autos").listFiles();
+    if (files != null) {
+      for (File file : files) {
+        if (file.getName().endsWith(".auto")) {
+          names.add(file.getName().substring(0, file.getName().length() - ".auto".length()));
+        }
+      }
+    }
+    names.sort(null);
+    return names;
+  }
+
+  /**
+   * Starts a JVM with the same classpath and natives as this one and runs one
+   * auto in it.
+   *
+   * @param name          Auto to run
+   * @param jvmProperties Extra -D properties for the child
+   * @return What the child reported
+   */
+  static AutoResult runInChild(String name, List<String> jvmProperties) throws IOException, InterruptedException {
+    List<String> command = new ArrayList<>();
+    command.add(ProcessHandle.current().info().command().orElse("java"));
+    command.add("-Djava.library.path=" + System.getProperty("java.library.path"));
+    command.addAll(jvmProperties);
+    command.add("-cp");
+    command.add(System.getProperty("java.class.path"));
+    command.add(AutoSimRunner.class.getName());
+    command.add("--child");
+    command.add(name);
+
+    long wallStart = System.nanoTime();
+    Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+
+    boolean finished = false;
+    double seconds = Double.NaN;
+    double poseErrorMeters = Double.NaN;
+    double poseErrorDegrees = Double.NaN;
+    List<SegmentResult> segments = new ArrayList<>();
+    try (var reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        if (!line.startsWith(kResultPrefix)) {
+          continue;
+        }
+        String[] fields = line.substring(kResultPrefix.length()).split("\t");
+        if (fields[0].equals("segment")) {
+          segments.add(new SegmentResult(fields[1], Double.parseDouble(fields[2])));
+        } else if (fields[0].equals("auto")) {
+          finished = Boolean.parseBoolean(fields[1]);
+          seconds = Double.parseDouble(fields[2]);
+          poseErrorMeters = Double.parseDouble(fields[3]);
+          poseErrorDegrees = Double.parseDouble(fields[4]);
+        }
+      }
+    }
+    process.waitFor();
+
+    return new AutoResult(name, finished, seconds, poseErrorMeters, poseErrorDegrees,
+        (System.nanoTime() - wallStart) / 1e9, segments);
+  }
+
+  private static void printReport(List<AutoResult> results) {
+    System.out.println();
+    for (AutoResult result : results) {
+      System.out.println(String.format("%-36s %s %6.2f s   pose error %.3f m %5.1f deg   (%.1f s wall)",
+          result.name(), result.finished() ? "   " : "DNF", result.seconds(), result.poseErrorMeters(),
+          result.poseErrorDegrees(), result.wallSeconds()));
+      for (SegmentResult segment : result.segments()) {
+        System.out.println(String.format("    %-32s %6.2f s", segment.label(), segment.seconds()));
+      }
+    }
+  }
+
+  /* Runs inside the child JVM, returns the exit code */
+  private static int runChild(String name) {
+    if (!HAL.initialize(500, 0)) {
+      System.err.println("Failed to initialize the HAL");
+      return 1;
+    }
+    SimHooks.pauseTiming();
+
+    DriverStationSim.setAllianceStationId(AllianceStationID.Blue1);
+    DriverStationSim.setDsAttached(true);
+    DriverStationSim.setAutonomous(true);
+    DriverStationSim.setEnabled(false);
+    DriverStationSim.notifyNewData();
+    DriverStation.refreshData();
+
+    var perturbation = SimPerturbation.fromSystemProperties();
+    var container = new RobotContainer();
+    var autoLoader = container.getAutoLoader();
+    var drivetrain = container.getDrivetrain();
+
+    AutoRoutine auto = null;
+    for (AutoRoutine candidate : autoLoader.getAutos()) {
+      if (candidate.name().equals(name)) {
+        auto = candidate;
+      }
+    }
+    if (auto == null) {
+      System.err.println("No auto named " + name);
+      return 1;
+    }
+
+    // Let everything settle disabled for a moment, like sitting on the field
+    for (int i = 0; i < 10; ++i) {
+      step(container);
+    }
+
+    // Time every top level step on its own
+    List<AutoStep> steps = (auto.command().type() == StepType.Sequential) ? auto.command().children()
+        : List.of(auto.command());
+    double[] stepStart = new double[steps.size()];
+    double[] stepEnd = new double[steps.size()];
+    Arrays.fill(stepEnd, Double.NaN);
+    List<Command> commands = new ArrayList<>();
+
+    Pose2d startingPose = autoLoader.getStartingPose(auto);
+    if (auto.resetOdom() && startingPose != null) {
+      commands.add(drivetrain.runOnce(() -> {
+        drivetrain.resetPose(startingPose);
+        if (perturbation != null) {
+          perturbation.start(startingPose);
+        }
+      }));
+    }
+    for (int i = 0; i < steps.size(); ++i) {
+      final int index = i;
+      Command stepCommand = autoLoader.buildStep(steps.get(i));
+      if (perturbation != null && steps.get(i).type() == StepType.Named) {
+        stepCommand = Commands.waitSeconds(perturbation.nextMechanismDelay()).andThen(stepCommand);
+      }
+      commands.add(Commands.runOnce(() -> stepStart[index] = Timer.getFPGATimestamp()));
+      commands.add(stepCommand);
+      commands.add(Commands.runOnce(() -> stepEnd[index] = Timer.getFPGATimestamp()));
+    }
+    Command command = Commands.sequence(commands.toArray(Command[]::new));
+
+    DriverStationSim.setEnabled(true);
+    DriverStationSim.notifyNewData();
+    DriverStation.refreshData();
+
+    double start = Timer.getFPGATimestamp();
+    command.schedule();
+    while (command.isScheduled() && Timer.getFPGATimestamp() - start < kTimeoutSeconds) {
+      step(container);
+      if (perturbation != null) {
+        if (!perturbation.isStarted()) {
+          perturbation.start(drivetrain.getState().Pose);
+        }
+        perturbation.update(drivetrain, kLoopPeriod);
+      }
+    }
+    double seconds = Timer.getFPGATimestamp() - start;
+    boolean finished = !command.isScheduled();
+
+    for (int i = 0; i < steps.size(); ++i) {
+      System.out.println(kResultPrefix + "segment\t" + describe(steps.get(i)) + "\t" + (stepEnd[i] - stepStart[i]));
+    }
+
+    double poseErrorMeters = Double.NaN;
+    double poseErrorDegrees = Double.NaN;
+    Pose2d endingPose = autoLoader.getEndingPose(auto);
+    if (endingPose != null) {
+      // Judge where the robot really ended up, not where it thinks it did
+      Pose2d finalPose = (perturbation != null && perturbation.isStarted()) ? perturbation.getTruePose()
+          : drivetrain.getState().Pose;
+      poseErrorMeters = finalPose.getTranslation().getDistance(endingPose.getTranslation());
+      poseErrorDegrees = Math.abs(finalPose.getRotation().minus(endingPose.getRotation()).getDegrees());
+    }
+    System.out.println(kResultPrefix + "auto\t" + finished + "\t" + seconds + "\t" + poseErrorMeters + "\t"
+        + poseErrorDegrees);
+
+    return 0;
+  }
+
+  /* One robot loop, the same order TimedRobot would do it in */
+  private static void step(RobotContainer container) {
+    SimHooks.stepTiming(kLoopPeriod);
+    DriverStation.refreshData();
+    container.robotPeriodic(RobotController.getFPGATime());
+  }
+
+  private static String describe(AutoStep step) {
+    switch (step.type()) {
+      case Path:
+        return "path " + step.name();
+      case Named:
+        return "named " + step.name();
+      case Wait:
+        return "wait " + step.waitTime();
+      default:
+        return step.type().name().toLowerCase() + " (" + step.children().size() + " steps)";
+    }
+  }
+}
@@ -8,10 +8,10 @@ package frc.team3602.robot;
 
 import edu.wpi.first.math.Matrix;
 import edu.wpi.first.math.VecBuilder;
-import edu.wpi.first.math.geometry.Pose2d;
 import edu.wpi.first.math.geometry.Rotation2d;
 import edu.wpi.first.math.geometry.Rotation3d;
 import edu.wpi.first.math.geometry.Transform3d;
+import edu.wpi.first.math.geometry.Translation2d;
 import edu.wpi.first.math.geometry.Translation3d;
 import edu.wpi.first.math.numbers.N1;
 import edu.wpi.first.math.numbers.N3;
@@ -24,28 +24,126 @@ import static edu.wpi.first.units.Units.*;
 import edu.wpi.first.apriltag.AprilTagFieldLayout;
 import edu.wpi.first.apriltag.AprilTagFields;
 
+
 public final class Constants {
   public final class OperatorInterfaceConstants {
     public final static int kXboxControllerPort = 0;
     public final static int kControlPanelPort = 1;
+
+    // driver stick shaping, see OperatorInput
+    public final static double kStickDeadband = 0.1;
+    // 0 is linear, 1 is fully cubic
+    public final static double kTranslationExpo = 0.3;
+    public final static double kRotationExpo = 0.2;
+    // how fast the shaped sticks can change, full stick per second
+    public final static double kTranslationSlewRate = 4.0;
+    public final static double kRotationSlewRate = 6.0;
+    // fraction of full speed for normal driving and the slow precision modes
+    // on the triggers, the precision modes share one pair
+    public final static double kDriveTranslationScale = 0.5;
+    public final static double kDriveRotationScale = 1.0;
+    public final static double kPrecisionTranslationScale = 0.1;
+    public final static double kPrecisionRotationScale = 0.3;
   }
 
   public final class DrivetrainConstants {
     public final static int kAlignmentLASERCANId = 6;
     public final static double minMetersFromReef = 0.1;
     public final static double maxMetersFromReef = Units.inchesToMeters(31); // TODO: Use real numbers :(
+
+    // fastest the steer motors can turn a module, about free speed through the
+    // 21.43:1 steer gearing
+    public final static double kMaxSteerVelocity = Units.rotationsToRadians(4.5); // rad/s
+
+    // Odometry thread
+    // the drivetrain is on the rio's CAN 2.0 bus, which can't keep up with the
+    // 250 Hz CAN FD default. Raise this until the OdometryMonitor warns, then
+    // back off
+    public final static double kOdometryFrequencyHz = 100.0;
+    // real time priority for the odometry thread, above the main robot thread
+    public final static int kOdometryThreadPriority = 10;
+
+    // Reef auto align
+    // run the align controller as fast as odometry updates
+    public final static double kAlignLoopPeriod = 1.0 / kOdometryFrequencyHz;
+    public final static double kAlignMaxSpeed = 2.5; // m/s
+    public final static double kAlignMaxAccel = 4.0; // m/s^2
+    public final static double kAlignMaxAngularSpeed = 2 * Math.PI; // rad/s
+    public final static double kAlignTranslationKP = 4.0;
+    public final static double kAlignRotationKP = 5.0;
+    public final static double kAlignRangeKP = 3.0;
+    // hand over to the LASER once we are this close to the branch on the pose
+    public final static double kAlignHandoffLateralMeters = 0.05;
+    public final static double kAlignHandoffAngleDegrees = 5.0;
+    public final static double kAlignTargetMetersFromReef = 0.12; // TODO: measure on the robot
+    public final static double kAlignToleranceMeters = 0.015;
+    public final static double kAlignToleranceDegrees = 2.0;
+
+    // Slip and collision detection
+    // a module this far off the rest of the robot's motion is slipping
+    public final static double kSlipVelocityErrorMetersPerSec = 0.5;
+    // the wheels and the Pigeon disagreeing on how fast we turn
+    public final static double kSlipYawRateErrorRadPerSec = 1.0;
+    // the accelerometer and the wheels disagreeing by more than about 1.2 g
+    public final static double kCollisionAccelErrorMetersPerSecSq = 12.0;
+    // keep odometry de-weighted this long after the last event
+    public final static double kSlipHoldSeconds = 0.5;
+    // odometry std devs [x, y, theta] normally (the CTRE default) and while
+    // slipping, theta comes from the Pigeon so we keep trusting it
+    public final static Matrix<N3, N1> kOdometryStdDevs = VecBuilder.fill(0.1, 0.1, 0.1);
+    public final static Matrix<N3, N1> kSlipOdometryStdDevs = VecBuilder.fill(1.0, 1.0, 0.1);
   }
 
   // in case we want the flypath stuff in superstructure or something
   public final class flyPathPosesConstants {
 
-    public static final Pose2d startingPose = new Pose2d(7.6, 0.5, Rotation2d.fromDegrees(180));
+    // points we like to drive through on the way into each station, blue side
+    // only, the flypath cache routes on blue and flips whole routes for red
+    public static final Translation2d[] blueBargeCoralIntakeApproach = {
+        new Translation2d(2.6, 7.3) };
+    public static final Translation2d[] blueNONBargeCoralIntakeApproach = {
+        new Translation2d(2.6, 1.8), new Translation2d(1.2, 1.8) };
+
+    // the flypath cache splits the blue half of the field into square regions
+    // and pre-routes every region to both stations
+    public static final double kRegionSizeMeters = 0.5;
+    public static final double kFieldLengthMeters = 17.548;
+    public static final double kFieldWidthMeters = 8.052;
+
+    // stay this far from the center of the reef when routing around it
+    public static final double kReefKeepOutRadiusMeters = 1.6;
+    public static final double kReefDetourRadiusMeters = 1.9;
+
+    // when driving faster than this the path starts along our current motion
+    public static final double kBlendSpeedMetersPerSec = 0.5;
+
+    public static final double kMaxVelocity = 3.0;
+    public static final double kMaxAcceleration = 3.0;
+    public static final double kMaxAngularVelocity = 2 * Math.PI;
+    public static final double kMaxAngularAcceleration = 4 * Math.PI;
+  }
 
-    // TODO- change with real life robot testing
-    public static final Pose2d blueNONBargeCoralIntakePose = new Pose2d(1.22, 1.68, Rotation2d.fromDegrees(145));
-    public static final Pose2d blueBargeCoralIntakePose = new Pose2d(0.8, 7.07, Rotation2d.fromDegrees(34.6));
-    public static final Pose2d redNONBargeCoralIntakePose = new Pose2d(16.5, 7.5, Rotation2d.fromDegrees(-36.7));
-    public static final Pose2d redBargeCoralIntakePose = new Pose2d(16.5, 1.68, Rotation2d.fromDegrees(-145));
+  public final class FieldConstants {
+    // blue reef faces, counter clockwise starting from the face closest to our
+    // driver station
+    public static final int[] kBlueReefTagIds = { 18, 17, 22, 21, 20, 19 };
+
+    // full length of the robot with bumpers, we stop this far / 2 from a tag
+    public static final double kRobotLengthMeters = 0.9;
+    // full width with bumpers, for facing a tag side on
+    public static final double kRobotWidthMeters = 0.9;
+    // the two branches on a reef face are 13 inches apart
+    public static final double kReefBranchOffsetMeters = Units.inchesToMeters(6.5);
+    // extra distance back from the branch pose for each level, L1 first
+    // PLACEHOLDERS: all 0 until they're measured on the robot, so every level
+    // gives the branch pose for now
+    public static final double[] kReefLevelStandoffMeters = { 0.0, 0.0, 0.0, 0.0 };
+
+    public static final int kBlueBargeStationTagId = 13;
+    public static final int kBlueNonBargeStationTagId = 12;
+    public static final int kBlueProcessorTagId = 16;
+    // we take coral in from the side, so the robot sits turned from the tag
+    public static final Rotation2d kCoralStationRobotRotation = Rotation2d.kCCW_90deg;
   }
 
   public final class ElevatorConstants {
@@ -81,19 +179,13 @@ public final class Constants {
     public final static double KV = 0.9;
     public final static double KA = 0.1;
 
+    // Mechanism, heights are inches of drum travel
+    public final static double gearing = 12.0;
+    public final static double drumDiameterInches = 2.15;
+
     // simulation constants
     public final static double kMaxHeightMeters = 1.5;
-    // sim elevator PID constants
-    public final static double simKP = 2;
-    public final static double simKI = 0;
-    public final static double simKD = 0.01;
-
-    // sim elevator ffe constants
-    public final static double simKS = 4.0;
-    public final static double simKG = 0;
-    public final static double simKV = 0.4;
-    public final static double simKA = 0.1;
-
+    public final static double kCarriageMassKg = 8.0; // TODO: weigh the carriage and pivot
   }
 
   public final class IntakeConstants {
@@ -101,6 +193,10 @@ public final class Constants {
     public final static double coralSpeed = 1.0;
     public final static double intakeAlgaeSpeed = -0.5;// -0.3
     public final static double scorAlgeaSpeed = 0.3;
+
+    // simulated coral, in seconds of the intake running at full speed
+    public final static double simCoralSensedAt = 0.1;
+    public final static double simCoralGoneAt = 0.25;
   }
 
   public final class PivotConstants {
@@ -129,29 +225,79 @@ public final class Constants {
     public final static double KV = 0.9;
     public final static double KA = 0.1;
 
+    // Mechanism
+    // the CANcoder is on the pivot shaft, motor to pivot is 12:1
+    public final static double gearing = 12.0;
+    // CANcoder reading in degrees when the pivot is level
+    public final static double encoderOffsetDegrees = 210.0;
+
     // Simulation Constants
-    public final static int gearing = 36;
     public final static double lengthMeters = 0.5;
     public final static double massKg = 3.0;
-
-    // sim pivot PID constants
-    public final static double simPivotKP = 0.25;
-    public final static double simPivotKI = 0;
-    public final static double simPivotKD = 0.01;
-
-    // sim pivot ffe constants
-    public final static double simPivotKS = 4.0;
-    public final static double simPivotKG = 1.315; // 1.4> -> 1.3<
-    public final static double simPivotKV = 0.4;
-    public final static double simPivotKA = 0.1;
+    public final static double simMinAngle = -110.0;
+    public final static double simMaxAngle = 120.0;
   }
 
   public final class ClimberConstants {
     public static final int motorCANId = 18;
     public static final double percentVoltageScalar = 0.2; // TODO: Make faster; this number is for testing.
+
+    // Encoder reads degrees of the climber arm, 0 is stowed and out is positive
+    public static final double gearing = 125.0; // TODO: check the real gearbox
+    public static final double deployAngle = 90.0; // TODO: tune on the robot
+    public static final double climbAngle = -20.0; // TODO: tune on the robot
+    public static final double tolerance = 2.0;
+    public static final double KP = 0.3; // TODO: tune on the robot
+    public static final double maxVoltage = 10.0; // TODO: tune on the robot
+
+    // The encoder is zeroed by driving in against the inner hard stop until
+    // the motor stalls, it isn't trusted before that
+    public static final double homeAngle = -30.0; // TODO: measure where the hard stop is
+    public static final double homingPercent = 0.2;
+    public static final double homingStallAmps = 10.0;
+    public static final double homingStallVelocity = 2.0; // degrees per second
+    public static final double homingStallSeconds = 0.25;
+    public static final double homingTimeout = 3.0;
+
+    // Simulation
+    public static final double lengthMeters = 0.3;
+    public static final double massKg = 2.0;
+    public static final double simMinAngle = homeAngle;
+    public static final double simMaxAngle = 110.0;
+  }
+
+  public final class AutonConstants {
+    // A mechanism has to hold its goal this long before an auto moves on
+    public static final double kSettleSeconds = 0.1;
+    // Backstops for the condition waits, the auto moves on after these anyway
+    public static final double kMechanismTimeout = 2.0;
+    public static final double kPivotClearanceTimeout = 1.0;
+
+    // Mechanism prep after a path starts once the robot is this close to the
+    // end of it and this slow, see AutoCompiler
+    public static final double kHoistDistanceMeters = 1.0;
+    public static final double kHoistMaxSpeedMetersPerSecond = 1.5;
+
+    // The auto profiler counts the drivetrain as stopped below these
+    public static final double kStoppedSpeedMetersPerSecond = 0.05;
+    public static final double kStoppedRateRadiansPerSecond = 0.05;
+  }
+
+  public final class VisualizationConstants {
+    // Mechanism poses go out once every this many loops
+    public static final int kPublishPeriodLoops = 5;
+
+    // Robot frame offsets for the AdvantageScope components, TODO: measure
+    // these from CAD
+    public static final double kPivotForwardMeters = 0.0;
+    public static final double kPivotAboveCarriageMeters = 0.45;
+    public static final double kIntakeArmLengthMeters = 0.4;
   }
 
   public final class VisionConstants {
+    // Cameras still read while the loop governor is shedding work
+    public static final int kCamerasWhenShedding = 2;
+
     public static final AprilTagFieldLayout kFieldLayout = AprilTagFieldLayout
         .loadField(AprilTagFields.k2025ReefscapeWelded);
 
@@ -185,7 +331,17 @@ public final class Constants {
     public static final Measure<DistanceUnit> kCameraHeight = Inches.of(4);
     public static final Measure<AngleUnit> kCameraPitch = Degrees.of(45); // 23.5
 
+    // Std devs with the tags right in front of the camera, they grow with the
+    // square of the average distance to the tags
+    public static final Matrix<N3, N1> kSingleTagStdDevs = VecBuilder.fill(4, 4, 8);
     public static final Matrix<N3, N1> kMultiTagStdDevs = VecBuilder.fill(0.5, 0.5, 1);
+    public static final double kStdDevsPerSquareMeter = 1.0 / 30.0;
+
+    // Single tag estimates past these are thrown out
+    public static final double kMaxSingleTagAmbiguity = 0.2;
+    public static final double kMaxSingleTagMeters = 4.0;
+    // How far off the field an estimate can be before it's thrown out
+    public static final double kFieldMarginMeters = 0.5;
   }
 
 }
\ No newline at end of file
@@ -0,0 +1,160 @@
+/*
+ * Copyright (C) 2025 Team 3602 All rights reserved. This work is
+ * licensed under the terms of the MIT license which can be found
+ * in the root directory of this project.
+ */
+
+package frc.team3602.robot;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BooleanSupplier;
+
+import com.ctre.phoenix6.configs.CANcoderConfiguration;
+import com.ctre.phoenix6.configs.TalonFXConfiguration;
+import com.ctre.phoenix6.hardware.CANcoder;
+import com.ctre.phoenix6.hardware.TalonFX;
+
+import edu.wpi.first.wpilibj.DataLogManager;
+import edu.wpi.first.wpilibj.DriverStation;
+
+/**
+ * Configures every CTRE device at once during startup.
+ * <p>
+ * Subsystems hand over one full configuration per device while they're being
+ * built, then {@link #applyAll()} applies them all in parallel, each on its
+ * own thread since every apply blocks on CAN. Each device's config is read
+ * back and checked after it's applied, and the whole thing is retried if the
+ * apply fails or the device doesn't hold what we sent. A full configuration
+ * also resets anything we didn't set, so nothing left over from another robot
+ * or an old deploy survives. That includes soft limits and gains set by hand
+ * in Tuner X, anything a device needs has to be in its config here.
+ */
+public final class DeviceConfigurator {
+  private static final double kTimeoutSeconds = 0.25;
+  private static final int kAttempts = 3;
+
+  /* Current limits come back as the nearest value the device can hold */
+  private static final double kCurrentTolerance = 0.5;
+  private static final double kRotationTolerance = 1e-3;
+  private static final double kDutyCycleTolerance = 1e-3;
+  private static final double kTimeTolerance = 1e-3;
+
+  /* One device, the attempt applies and reads back its config */
+  private record Device(String name, BooleanSupplier attempt) {
+  }
+
+  private static final List<Device> pending = new ArrayList<>();
+
+  private DeviceConfigurator() {
+  }
+
+  /**
+   * Queues a motor's configuration for the next {@link #applyAll()}.
+   *
+   * @param name   Name for error messages
+   * @param motor  Motor to configure
+   * @param config Full configuration, not changed after this
+   */
+  public static synchronized void add(String name, TalonFX motor, TalonFXConfiguration config) {
+    pending.add(new Device(name, () -> {
+      var configurator = motor.getConfigurator();
+      if (!configurator.apply(config, kTimeoutSeconds).isOK()) {
+        return false;
+      }
+      var readBack = new TalonFXConfiguration();
+      return configurator.refresh(readBack, kTimeoutSeconds).isOK() && matches(config, readBack);
+    }));
+  }
+
+  /**
+   * Queues a CANcoder's configuration for the next {@link #applyAll()}.
+   *
+   * @param name    Name for error messages
+   * @param encoder CANcoder to configure
+   * @param config  Full configuration, not changed after this
+   */
+  public static synchronized void add(String name, CANcoder encoder, CANcoderConfiguration config) {
+    pending.add(new Device(name, () -> {
+      var configurator = encoder.getConfigurator();
+      if (!configurator.apply(config, kTimeoutSeconds).isOK()) {
+        return false;
+      }
+      var readBack = new CANcoderConfiguration();
+      return configurator.refresh(readBack, kTimeoutSeconds).isOK() && matches(config, readBack);
+    }));
+  }
+
+  /**
+   * Applies everything queued so far in parallel.
+   *
+   * @return Future that completes once every device is configured or has
+   *         run out of attempts
+   */
+  public static synchronized CompletableFuture<Void> applyAll() {
+    List<Device> devices = List.copyOf(pending);
+    pending.clear();
+    if (devices.isEmpty()) {
+      return CompletableFuture.completedFuture(null);
+    }
+
+    long startTime = System.nanoTime();
+    ExecutorService executor = Executors.newFixedThreadPool(devices.size(), runnable -> {
+      var thread = new Thread(runnable, "DeviceConfigurator");
+      thread.setDaemon(true);
+      return thread;
+    });
+
+    CompletableFuture<?>[] futures = new CompletableFuture<?>[devices.size()];
+    for (int i = 0; i < devices.size(); ++i) {
+      Device device = devices.get(i);
+      futures[i] = CompletableFuture.runAsync(() -> configure(device), executor);
+    }
+    return CompletableFuture.allOf(futures).whenComplete((result, error) -> {
+      executor.shutdown();
+      DataLogManager.log(String.format("Configured %d devices in %.0f ms", devices.size(),
+          (System.nanoTime() - startTime) / 1e6));
+    });
+  }
+
+  private static void configure(Device device) {
+    for (int attempt = 0; attempt < kAttempts; ++attempt) {
+      if (device.attempt().getAsBoolean()) {
+        return;
+      }
+    }
+    DriverStation.reportError("Couldn't configure " + device.name() + " after " + kAttempts + " attempts", false);
+  }
+
+  /*
+   * Every setting in the groups we set, whether we changed it from the default
+   * or not. Everything else is left at default.
+   */
+  private static boolean matches(TalonFXConfiguration sent, TalonFXConfiguration readBack) {
+    var sentOutput = sent.MotorOutput;
+    var readOutput = readBack.MotorOutput;
+    var sentLimits = sent.CurrentLimits;
+    var readLimits = readBack.CurrentLimits;
+    return sentOutput.Inverted == readOutput.Inverted
+        && sentOutput.NeutralMode == readOutput.NeutralMode
+        && Math.abs(sentOutput.DutyCycleNeutralDeadband - readOutput.DutyCycleNeutralDeadband) < kDutyCycleTolerance
+        && Math.abs(sentOutput.PeakForwardDutyCycle - readOutput.PeakForwardDutyCycle) < kDutyCycleTolerance
+        && Math.abs(sentOutput.PeakReverseDutyCycle - readOutput.PeakReverseDutyCycle) < kDutyCycleTolerance
+        && sentLimits.StatorCurrentLimitEnable == readLimits.StatorCurrentLimitEnable
+        && Math.abs(sentLimits.StatorCurrentLimit - readLimits.StatorCurrentLimit) < kCurrentTolerance
+        && sentLimits.SupplyCurrentLimitEnable == readLimits.SupplyCurrentLimitEnable
+        && Math.abs(sentLimits.SupplyCurrentLimit - readLimits.SupplyCurrentLimit) < kCurrentTolerance
+        && Math.abs(sentLimits.SupplyCurrentLowerLimit - readLimits.SupplyCurrentLowerLimit) < kCurrentTolerance
+        && Math.abs(sentLimits.SupplyCurrentLowerTime - readLimits.SupplyCurrentLowerTime) < kTimeTolerance;
+  }
+
+  private static boolean matches(CANcoderConfiguration sent, CANcoderConfiguration readBack) {
+    return sent.MagnetSensor.SensorDirection == readBack.MagnetSensor.SensorDirection
+        && Math.abs(sent.MagnetSensor.MagnetOffset - readBack.MagnetSensor.MagnetOffset) < kRotationTolerance
+        && Math.abs(sent.MagnetSensor.AbsoluteSensorDiscontinuityPoint
+            - readBack.MagnetSensor.AbsoluteSensorDiscontinuityPoint) < kRotationTolerance;
+  }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (C) 2025 Team 3602 All rights reserved. This work is
+ * licensed under the terms of the MIT license which can be found
+ * in the root directory of this project.
+ */
+
+package frc.team3602.robot;
+
+import edu.wpi.first.networktables.DoublePublisher;
+import edu.wpi.first.networktables.IntegerPublisher;
+import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.RobotController;
+import edu.wpi.first.wpilibj.TimedRobot;
+
+/**
+ * Keeps the main loop inside its 20 ms by turning off work we can live
+ * without.
+ * <p>
+ * {@link #startLoop(long)} gets TimedRobot's loop start, so the mode's periodic
+ * method (disabledPeriodic and its warm up) counts towards the loop, and
+ * {@link #endLoop()} goes last in {@code robotPeriodic}. The dashboard and
+ * LiveWindow updates TimedRobot runs after robotPeriodic aren't timed, they
+ * only show up as the next loop starting late. Any loop that runs long, or
+ * starts late when the one before it didn't already shed for running long,
+ * sheds the next piece of {@link Work} in order. Once the loop has had plenty of
+ * headroom for a while the last piece shed comes back, one at a time. Code
+ * doing optional work checks {@link #isEnabled} first. That check is safe from
+ * any thread, the odometry thread does its logging through it too.
+ */
+public final class LoopGovernor {
+  /** Work that can be skipped, in the order it gets shed. */
+  public enum Work {
+    Dashboard,
+    MechanismViz,
+    ExtraCameras,
+    DebugLogging
+  }
+
+  private static final Work[] kWork = Work.values();
+
+  private static final long kPeriodMicros = (long) (TimedRobot.kDefaultPeriod * 1e6);
+  /* Shed above this much of the period, restore below this much */
+  private static final long kShedMicros = kPeriodMicros * 3 / 4;
+  private static final long kRestoreMicros = kPeriodMicros / 2;
+  /* A loop that starts this late means the last one overran */
+  private static final long kLateMicros = kPeriodMicros / 10;
+  /* Loops of headroom in a row before we bring work back */
+  private static final int kRestoreLoops = 50;
+
+  /* How many of kWork are shed, written by the main loop only */
+  private static volatile int shedCount = 0;
+
+  private static long loopStartMicros = 0;
+  private static long lastLoopStartMicros = 0;
+  /* If the last loop shed, so its overrun isn't counted again as this one starting late */
+  private static boolean lastLoopShed = false;
+  private static int headroomLoops = 0;
+
+  private static final NetworkTable table = NetworkTableInstance.getDefault().getTable("LoopGovernor");
+  private static final DoublePublisher loopTimePub = table.getDoubleTopic("LoopTime").publish();
+  private static final IntegerPublisher shedCountPub = table.getIntegerTopic("ShedCount").publish();
+
+  private LoopGovernor() {
+  }
+
+  /**
+   * @param work Optional work
+   * @return If the work should be done this loop
+   */
+  public static boolean isEnabled(Work work) {
+    return work.ordinal() >= shedCount;
+  }
+
+  /**
+   * @return When this loop started, in FPGA seconds
+   */
+  public static double getLoopStartSeconds() {
+    return loopStartMicros / 1e6;
+  }
+
+  /**
+   * @return Seconds between the starts of this loop and the last one, 0 on the
+   *         first loop
+   */
+  public static double getLoopPeriodSeconds() {
+    return (lastLoopStartMicros == 0) ? 0.0 : (loopStartMicros - lastLoopStartMicros) / 1e6;
+  }
+
+  /**
+   * Call first thing in robotPeriodic.
+   *
+   * @param startMicros When the loop started in FPGA microseconds, from
+   *                    TimedRobot.getLoopStartTime()
+   */
+  public static void startLoop(long startMicros) {
+    lastLoopStartMicros = loopStartMicros;
+    loopStartMicros = startMicros;
+  }
+
+  /** Call last thing in robotPeriodic. */
+  public static void endLoop() {
+    long loopMicros = RobotController.getFPGATime() - loopStartMicros;
+    boolean late = lastLoopStartMicros != 0 && !lastLoopShed
+        && loopStartMicros - lastLoopStartMicros > kPeriodMicros + kLateMicros;
+
+    int shed = shedCount;
+    lastLoopShed = loopMicros > kShedMicros || late;
+    if (lastLoopShed) {
+      headroomLoops = 0;
+      if (shed < kWork.length) {
+        DriverStation.reportWarning(String.format("Loop took %.1f ms%s, shedding %s", loopMicros / 1000.0,
+            late ? " and started late" : "", kWork[shed]), false);
+        shedCount = shed + 1;
+      }
+    } else if (loopMicros < kRestoreMicros && shed > 0) {
+      if (++headroomLoops >= kRestoreLoops) {
+        headroomLoops = 0;
+        shedCount = shed - 1;
+      }
+    } else {
+      headroomLoops = 0;
+    }
+
+    loopTimePub.set(loopMicros / 1e6);
+    shedCountPub.set(shedCount);
+  }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (C) 2025 Team 3602 All rights reserved. This work is
+ * licensed under the terms of the MIT license which can be found
+ * in the root directory of this project.
+ */
+
+package frc.team3602.robot;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import edu.wpi.first.math.geometry.Pose3d;
+import edu.wpi.first.math.util.Units;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.networktables.RawPublisher;
+
+import frc.team3602.robot.LoopGovernor.Work;
+import frc.team3602.robot.subsystems.ElevatorSubsystem;
+import frc.team3602.robot.subsystems.IntakeSubsystem;
+import frc.team3602.robot.subsystems.PivotSubsystem;
+
+import static frc.team3602.robot.Constants.VisualizationConstants.*;
+
+/**
+ * Shows the mechanisms in AdvantageScope and on the Mechanism2d, a few times
+ * a second instead of every loop.
+ * <p>
+ * Component poses go out as one {@code Pose3d[]} in the order of the
+ * components in the AdvantageScope robot config: elevator stage, carriage,
+ * pivot, intake. They're built from the heights and angles the subsystems
+ * already read this loop and packed straight into a reused buffer in the
+ * Pose3d struct layout, so publishing them doesn't allocate or touch CAN.
+ */
+public class MechanismVisualizer {
+  private static final int kComponentCount = 4;
+  /* Translation x, y, z then rotation quaternion w, x, y, z */
+  private static final int kPoseBytes = 7 * Double.BYTES;
+
+  private final ElevatorSubsystem elevator;
+  private final PivotSubsystem pivot;
+  private final IntakeSubsystem intake;
+
+  private final byte[] poseBytes = new byte[kComponentCount * kPoseBytes];
+  private final ByteBuffer poseBuffer = ByteBuffer.wrap(poseBytes).order(ByteOrder.LITTLE_ENDIAN);
+  private final RawPublisher posePublisher;
+
+  private int loopsSincePublish = 0;
+
+  public MechanismVisualizer(ElevatorSubsystem elevator, PivotSubsystem pivot, IntakeSubsystem intake) {
+    this.elevator = elevator;
+    this.pivot = pivot;
+    this.intake = intake;
+
+    var inst = NetworkTableInstance.getDefault();
+    inst.addSchema(Pose3d.struct);
+    posePublisher = inst.getTable("Mechanisms").getRawTopic("ComponentPoses")
+        .publish(Pose3d.struct.getTypeString() + "[]");
+  }
+
+  /** Call once per loop after the scheduler has run. */
+  public void periodic() {
+    if (++loopsSincePublish < kPublishPeriodLoops || !LoopGovernor.isEnabled(Work.MechanismViz)) {
+      return;
+    }
+    loopsSincePublish = 0;
+
+    elevator.updateViz();
+    pivot.updateViz();
+    intake.updateViz();
+
+    // The stage rides up half as far as the carriage
+    double carriageHeight = Units.inchesToMeters(elevator.getHeightInches());
+    double pivotAngle = Units.degreesToRadians(pivot.getAngleDegrees());
+    double pivotX = kPivotForwardMeters;
+    double pivotZ = carriageHeight + kPivotAboveCarriageMeters;
+
+    // Pitching up is a negative rotation about the robot's Y axis
+    poseBuffer.clear();
+    putPose(0.0, carriageHeight / 2.0, 0.0);
+    putPose(0.0, carriageHeight, 0.0);
+    putPose(pivotX, pivotZ, -pivotAngle);
+    putPose(pivotX + kIntakeArmLengthMeters * Math.cos(pivotAngle),
+        pivotZ + kIntakeArmLengthMeters * Math.sin(pivotAngle), -pivotAngle);
+
+    posePublisher.set(poseBytes);
+  }
+
+  /* One component in the robot's XZ plane, rotated about Y */
+  private void putPose(double x, double z, double pitch) {
+    poseBuffer.putDouble(x).putDouble(0.0).putDouble(z);
+    poseBuffer.putDouble(Math.cos(pitch / 2.0)).putDouble(0.0).putDouble(Math.sin(pitch / 2.0)).putDouble(0.0);
+  }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (C) 2025 Team 3602 All rights reserved. This work is
+ * licensed under the terms of the MIT license which can be found
+ * in the root directory of this project.
+ */
+
+package frc.team3602.robot;
+
+import edu.wpi.first.math.filter.SlewRateLimiter;
+import edu.wpi.first.wpilibj.smartdashboard.SendableChooser;
+import edu.wpi.first.wpilibj2.command.button.CommandXboxController;
+
+import static frc.team3602.robot.Constants.OperatorInterfaceConstants.*;
+
+/**
+ * Reads the driver's sticks once per loop and shapes them.
+ * <p>
+ * {@link #sample()} runs before the scheduler and stores everything as plain
+ * doubles, so every command that drives off the sticks in that loop sees the
+ * same values without going back to the controller or NetworkTables. Chooser
+ * selections are cached when they change instead of being read every loop.
+ * <p>
+ * Sticks go through a radial deadband, then an expo curve, then a slew rate
+ * limit, and come out as fractions of full speed from -1 to 1.
+ */
+public class OperatorInput {
+  private final CommandXboxController xboxController;
+
+  private final SlewRateLimiter translationXLimiter = new SlewRateLimiter(kTranslationSlewRate);
+  private final SlewRateLimiter translationYLimiter = new SlewRateLimiter(kTranslationSlewRate);
+  private final SlewRateLimiter rotationLimiter = new SlewRateLimiter(kRotationSlewRate);
+
+  /* Set by the chooser's change listener */
+  private double polarity = 1.0;
+
+  /* Snapshot from the last call to sample() */
+  private double translationX = 0.0;
+  private double translationY = 0.0;
+  private double rotation = 0.0;
+
+  public OperatorInput(CommandXboxController xboxController) {
+    this.xboxController = xboxController;
+  }
+
+  /**
+   * Keeps the drive polarity in sync with a chooser without polling it.
+   *
+   * @param polarityChooser Chooser whose selection is 1 or -1
+   */
+  public void followPolarity(SendableChooser<Double> polarityChooser) {
+    polarityChooser.onChange(selected -> polarity = selected);
+  }
+
+  /** Reads the controller and updates the snapshot. Call once per loop. */
+  public void sample() {
+    // Forward is negative Y and left is negative X on the sticks
+    double x = -polarity * xboxController.getLeftY();
+    double y = -polarity * xboxController.getLeftX();
+    double turn = -xboxController.getRightX();
+
+    // Deadband and shape the stick's distance from center so diagonals don't
+    // get squashed onto the axes
+    double magnitude = Math.hypot(x, y);
+    double shapedMagnitude = shape(magnitude, kTranslationExpo);
+    double scale = (magnitude > 1e-9) ? shapedMagnitude / magnitude : 0.0;
+
+    translationX = translationXLimiter.calculate(x * scale);
+    translationY = translationYLimiter.calculate(y * scale);
+    rotation = rotationLimiter.calculate(Math.copySign(shape(Math.abs(turn), kRotationExpo), turn));
+  }
+
+  /**
+   * @return Forward away from the driver, -1 to 1
+   */
+  public double getTranslationX() {
+    return translationX;
+  }
+
+  /**
+   * @return Left from the driver's point of view, -1 to 1
+   */
+  public double getTranslationY() {
+    return translationY;
+  }
+
+  /**
+   * @return Counterclockwise, -1 to 1
+   */
+  public double getRotation() {
+    return rotation;
+  }
+
+  /* Deadbands a value from 0 to 1, then blends linear and cubic response */
+  private static double shape(double value, double expo) {
+    if (value < kStickDeadband) {
+      return 0.0;
+    }
+    double rescaled = Math.min((value - kStickDeadband) / (1.0 - kStickDeadband), 1.0);
+    return (1.0 - expo) * rescaled + expo * rescaled * rescaled * rescaled;
+  }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) 2025 Team 3602 All rights reserved. This work is
+ * licensed under the terms of the MIT license which can be found
+ * in the root directory of this project.
+ */
+
+package frc.team3602.robot;
+
+import java.io.IOException;
+
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.util.datalog.DataLogWriter;
+
+import frc.team3602.robot.logging.InputLog;
+import frc.team3602.robot.subsystems.ClimberIO;
+import frc.team3602.robot.subsystems.ClimberSubsystem;
+import frc.team3602.robot.subsystems.ElevatorIO;
+import frc.team3602.robot.subsystems.ElevatorSubsystem;
+import frc.team3602.robot.subsystems.IntakeIO;
+import frc.team3602.robot.subsystems.IntakeSubsystem;
+import frc.team3602.robot.subsystems.PivotIO;
+import frc.team3602.robot.subsystems.PivotSubsystem;
+
+/**
+ * Plays a match log back through the mechanisms and vision fusion as fast as
+ * the CPU allows.
+ * <p>
+ * Run through {@code ./gradlew replayLog -Plog=path/to/match.wpilog}. The
+ * elevator, pivot, intake and climber and vision fusion are built with IO that
+ * does nothing and every loop their inputs come from the log, see
+ * {@link InputLog}. Their outputs are checked against the match log bit for
+ * bit, and the replay is written next to it with a {@code _replay} suffix so
+ * the two can be compared in AdvantageScope.
+ * <p>
+ * That is all that's replayed. Only the subsystems' own loops run, not the
+ * commands, the goals the commands set are logged with the inputs. The
+ * drivetrain isn't replayed at all: Phoenix reads the modules and gyro and
+ * runs the pose estimator on its own thread, so its logged state is only
+ * there to line a replay up with where the robot was. Changes to commands,
+ * pathing or the drivetrain can't be checked this way.
+ * <p>
+ * Change a subsystem and replay again to see what it would have done in that
+ * match, the mismatches are then the loops the change made a difference in.
+ */
+public final class ReplayRunner {
+  private static final double kLoopPeriod = 0.02;
+
+  private ReplayRunner() {
+  }
+
+  public static void main(String... args) {
+    System.exit(run(args));
+  }
+
+  private static int run(String... args) {
+    if (args.length < 1) {
+      System.err.println("Usage: ReplayRunner <match.wpilog> [replay.wpilog]");
+      return 1;
+    }
+    String matchLog = args[0];
+    String replayLog = (args.length > 1) ? args[1] : matchLog.replaceFirst("(\\.wpilog)?$", "_replay.wpilog");
+
+    if (!HAL.initialize(500, 0)) {
+      System.err.println("Failed to initialize the HAL");
+      return 1;
+    }
+
+    // Every IO here is the interface's defaults, which do nothing
+    var elevator = new ElevatorSubsystem(new ElevatorIO() {
+    });
+    var pivot = new PivotSubsystem(new PivotIO() {
+    }, elevator.elevatorSimMech.getRoot("Pivot Root", 0.75, 0.7), () -> elevator.elevatorViz.getLength());
+    var intake = new IntakeSubsystem(new IntakeIO() {
+    }, elevator.elevatorSimMech.getRoot("Intake Wheel Root", 0.75, 0.3), () -> elevator.elevatorViz.getLength(),
+        () -> Math.toRadians(pivot.getAngleDegrees()));
+    var climber = new ClimberSubsystem(new ClimberIO() {
+    });
+    var visionFusion = new VisionFusion(new VisionIO() {
+    }, (pose, timestampSeconds, stdDevs) -> {
+    });
+
+    try (var output = new DataLogWriter(replayLog)) {
+      InputLog.startReplay(matchLog, output);
+      int loops = InputLog.getReplayLoopCount();
+      if (loops == 0) {
+        System.err.println(matchLog + " has no subsystem inputs, was it written by this code?");
+        return 1;
+      }
+
+      // The same order robotPeriodic runs them in
+      long startNanos = System.nanoTime();
+      for (int loop = 0; loop < loops; ++loop) {
+        visionFusion.fuse(true);
+        elevator.periodic();
+        pivot.periodic();
+        intake.periodic();
+        climber.periodic();
+      }
+      double wallSeconds = (System.nanoTime() - startNanos) / 1e9;
+
+      double matchSeconds = loops * kLoopPeriod;
+      System.out.println(String.format("Replayed %d loops (%.1f s of robot time) in %.2f s, %.0fx real time",
+          loops, matchSeconds, wallSeconds, matchSeconds / wallSeconds));
+      System.out.println("Replay written to " + replayLog);
+
+      long mismatches = InputLog.getMismatchCount();
+      if (mismatches == 0) {
+        System.out.println("Every mechanism and vision output matches the match log");
+        return 0;
+      }
+      System.out.println(mismatches + " outputs don't match the match log, the first: "
+          + InputLog.getFirstMismatch());
+      return 1;
+    } catch (IOException e) {
+      System.err.println("Couldn't replay " + matchLog + ": " + e.getMessage());
+      return 1;
+    }
+  }
+}
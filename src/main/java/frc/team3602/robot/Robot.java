@@ -9,28 +9,37 @@ package frc.team3602.robot;
 import com.ctre.phoenix6.Utils;
 
 import au.grapplerobotics.CanBridge;
+import edu.wpi.first.wpilibj.DataLogManager;
+import edu.wpi.first.wpilibj.DriverStation;
 import edu.wpi.first.wpilibj.TimedRobot;
 import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.CommandScheduler;
 
+import frc.team3602.robot.logging.InputLog;
+
 public class Robot extends TimedRobot {
 
   private final RobotContainer robotContainer = new RobotContainer();
 
   public Robot() {
     CanBridge.runTCP();
+
+    // Every subsystem's inputs go in the match log, so ReplayRunner can play
+    // a match back through the same code
+    DataLogManager.start();
+    DriverStation.startDataLog(DataLogManager.getLog());
+    InputLog.start(DataLogManager.getLog());
   }
 
   private Command autonomousCommand;
 
   @Override
   public void robotInit() {
-   // robotContainer.startPose();
   }
 
   @Override
   public void robotPeriodic() {
-    CommandScheduler.getInstance().run();
+    robotContainer.robotPeriodic(getLoopStartTime());
     // robotContainer.updatePose();
   }
 
@@ -40,6 +49,7 @@ public class Robot extends TimedRobot {
 
   @Override
   public void disabledPeriodic() {
+    robotContainer.warmUp();
   }
 
   @Override
@@ -6,8 +6,8 @@
 
 package frc.team3602.robot;
 
-import com.ctre.phoenix6.swerve.SwerveModule.DriveRequestType;
-import com.pathplanner.lib.auto.AutoBuilder;
+import java.util.Set;
+
 import com.pathplanner.lib.auto.NamedCommands;
 import com.ctre.phoenix6.Utils;
 import com.ctre.phoenix6.swerve.SwerveRequest;
@@ -18,6 +18,7 @@ import edu.wpi.first.math.geometry.Rotation2d;
 import edu.wpi.first.wpilibj.smartdashboard.SendableChooser;
 import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 import edu.wpi.first.wpilibj2.command.Command;
+import edu.wpi.first.wpilibj2.command.CommandScheduler;
 import edu.wpi.first.wpilibj2.command.Commands;
 import edu.wpi.first.wpilibj2.command.button.CommandJoystick;
 import edu.wpi.first.wpilibj2.command.button.CommandXboxController;
@@ -25,13 +26,25 @@ import edu.wpi.first.wpilibj2.command.button.CommandXboxController;
 import static edu.wpi.first.units.Units.*;
 
 import frc.team3602.robot.Constants.ElevatorConstants;
+import frc.team3602.robot.LoopGovernor.Work;
 import frc.team3602.robot.generated.TunerConstants;
+import frc.team3602.robot.pathing.AutoLoader;
+import frc.team3602.robot.pathing.AutoProfiler;
+import frc.team3602.robot.subsystems.ClimberIOSim;
+import frc.team3602.robot.subsystems.ClimberIOSparkMax;
 import frc.team3602.robot.subsystems.ClimberSubsystem;
 import frc.team3602.robot.subsystems.DrivetrainSubsystem;
+import frc.team3602.robot.subsystems.ElevatorIOSim;
+import frc.team3602.robot.subsystems.ElevatorIOTalonFX;
 import frc.team3602.robot.subsystems.ElevatorSubsystem;
+import frc.team3602.robot.subsystems.IntakeIOSim;
+import frc.team3602.robot.subsystems.IntakeIOTalonFX;
 import frc.team3602.robot.subsystems.IntakeSubsystem;
+import frc.team3602.robot.subsystems.PivotIOSim;
+import frc.team3602.robot.subsystems.PivotIOTalonFX;
 import frc.team3602.robot.subsystems.PivotSubsystem;
 
+import static frc.team3602.robot.Constants.AutonConstants.*;
 import static frc.team3602.robot.Constants.OperatorInterfaceConstants.*;
 import static frc.team3602.robot.Constants.VisionConstants.*;
 
@@ -42,12 +55,6 @@ public class RobotContainer {
                                                                                     // angular velocity
 
   /* Setting up bindings for necessary control of the swerve drive platform */
-  private final SwerveRequest.FieldCentric drive = new SwerveRequest.FieldCentric()
-      .withDeadband(MaxSpeed * 0.1).withRotationalDeadband(MaxAngularRate * 0.1) // Add a 10% deadband
-      .withDriveRequestType(DriveRequestType.OpenLoopVoltage); // Use open-loop control for drive motors
-  private final SwerveRequest.RobotCentric robocentricDrive = new SwerveRequest.RobotCentric()
-      .withDeadband(MaxSpeed * 0.1).withRotationalDeadband(MaxAngularRate * 0.1) // Add a 10% deadband
-      .withDriveRequestType(DriveRequestType.OpenLoopVoltage); // Use open-loop control for drive motors
   private final SwerveRequest.SwerveDriveBrake brake = new SwerveRequest.SwerveDriveBrake();
   private final SwerveRequest.PointWheelsAt point = new SwerveRequest.PointWheelsAt();
 
@@ -56,29 +63,52 @@ public class RobotContainer {
   /* Operator Interfaces, Real */
   private final CommandXboxController xboxController = new CommandXboxController(kXboxControllerPort);
   private final CommandJoystick joystick = new CommandJoystick(kControlPanelPort);
+  private final OperatorInput operatorInput = new OperatorInput(xboxController);
 
   /* Operator Interfaces, Simulated */
   // private final CommandJoystick joystick = new CommandJoystick(0);
 
   /* Subsystems */
   private final DrivetrainSubsystem drivetrainSubsys = TunerConstants.createDrivetrain();
-  private final ElevatorSubsystem elevatorSubsys = new ElevatorSubsystem();
+  // In sim the same devices are driven by physics, ReplayRunner gives them
+  // IO that does nothing instead
+  private final ElevatorSubsystem elevatorSubsys = new ElevatorSubsystem(
+      Utils.isSimulation() ? new ElevatorIOSim() : new ElevatorIOTalonFX());
   private final PivotSubsystem pivotSubsys = new PivotSubsystem(
+      Utils.isSimulation() ? new PivotIOSim() : new PivotIOTalonFX(),
       elevatorSubsys.elevatorSimMech.getRoot("Pivot Root", 0.75, 0.7), () -> elevatorSubsys.elevatorViz.getLength());
   private final IntakeSubsystem intakeSubsys = new IntakeSubsystem(
+      Utils.isSimulation() ? new IntakeIOSim() : new IntakeIOTalonFX(),
       elevatorSubsys.elevatorSimMech.getRoot("Intake Wheel Root", 0.75, 0.3),
-      () -> elevatorSubsys.elevatorViz.getLength(), () -> pivotSubsys.pivotSim.getAngleRads());
-  private final ClimberSubsystem climberSubsys = new ClimberSubsystem();
+      () -> elevatorSubsys.elevatorViz.getLength(), () -> Math.toRadians(pivotSubsys.getAngleDegrees()));
+  private final ClimberSubsystem climberSubsys = new ClimberSubsystem(
+      Utils.isSimulation() ? new ClimberIOSim() : new ClimberIOSparkMax());
+  private final MechanismVisualizer mechanismVisualizer = new MechanismVisualizer(elevatorSubsys, pivotSubsys,
+      intakeSubsys);
 
   private final Vision vision = new Vision();
+  private final VisionFusion visionFusion = new VisionFusion(vision,
+      drivetrainSubsys::addVisionMeasurement);
   private final Superstructure superstructure = new Superstructure(/* drivetrainSubsys, */ elevatorSubsys, intakeSubsys,
       pivotSubsys /* , vision */);
 
   /* Autonomous */
+  private final AutoProfiler autoProfiler = new AutoProfiler(this::isRobotMoving);
+  private final AutoLoader autoLoader = new AutoLoader(drivetrainSubsys, autoProfiler);
   private final SendableChooser<Command> autoChooser;
   private SendableChooser<Double> polarityChooser = new SendableChooser<>();
+  private final WarmUp warmUp;
+
+  private final RuntimeMonitor runtimeMonitor = new RuntimeMonitor();
 
   public RobotContainer() {
+    // Configure every device while the paths load, both mostly wait
+    var devicesConfigured = DeviceConfigurator.applyAll();
+
+    // Load every path and auto across all cores before anything else
+    autoLoader.loadAll();
+    devicesConfigured.join();
+
     // Register commands for auton
     NamedCommands.registerCommand("elevDown", elevatorSubsys.setHeight(ElevatorConstants.down));
     NamedCommands.registerCommand("prepElevL4", superstructure.autonPrepElevL4());
@@ -92,6 +122,12 @@ public class RobotContainer {
     NamedCommands.registerCommand("prepPivotCoralIntake", superstructure.autonPrepPivotCoralIntake());
     NamedCommands.registerCommand("prepPivotAlgae", superstructure.autonPrepPivotAlgae());
 
+    // These end as soon as the mechanisms get there, use them instead of waits
+    NamedCommands.registerCommand("waitForElevator", superstructure.autonWaitForElevator());
+    NamedCommands.registerCommand("waitForPivot", superstructure.autonWaitForPivot());
+    NamedCommands.registerCommand("waitForPivotClearance", superstructure.autonWaitForPivotClearance());
+    NamedCommands.registerCommand("waitAtGoal", superstructure.autonWaitAtGoal());
+
     NamedCommands.registerCommand("shoot", superstructure.autonShoot());
     NamedCommands.registerCommand("intake", superstructure.autonIntake());
 
@@ -99,13 +135,20 @@ public class RobotContainer {
     NamedCommands.registerCommand("grabAlgaeLow", superstructure.autonGrabAlgaeLow());
     NamedCommands.registerCommand("holdAlgae", superstructure.autonHoldAlgae());
 
+    // climberSubsys.deploy() and climb() get registered as "deployClimber" and
+    // "climb" once the climber's gearing, angles and gains are measured
+
     drivetrainSubsys.configDrivetrainSubsys();
-    autoChooser = AutoBuilder.buildAutoChooser();
+    // Elevator and pivot prep can start before the path ahead of it ends
+    autoLoader.compileAutos(Set.of(elevatorSubsys, pivotSubsys));
+    autoChooser = autoLoader.buildAutoChooser();
+    warmUp = new WarmUp(drivetrainSubsys, vision, superstructure, autoLoader);
 
     SmartDashboard.putData("Drive Polarity", polarityChooser);
     polarityChooser.setDefaultOption("Default", 1.0);
     polarityChooser.addOption("Positive", 1.0);
     polarityChooser.addOption("Negative", -1.0);
+    operatorInput.followPolarity(polarityChooser);
 
     configDefaultCommands();
     configButtonBindings();
@@ -130,25 +173,29 @@ public class RobotContainer {
       // // (left)
       // );
     } else {
-      drivetrainSubsys.setDefaultCommand(
-          drivetrainSubsys.applyRequest(
-              () -> drive.withVelocityX(0.5 * polarityChooser.getSelected() * -xboxController.getLeftY() * MaxSpeed) // Drive
-                  // forward with
-                  // negative Y
-                  // (forward)
-                  .withVelocityY(0.5 * polarityChooser.getSelected() * -xboxController.getLeftX() * MaxSpeed) // Drive
-                                                                                                              // left
-                                                                                                              // with
-                                                                                                              // negative
-                                                                                                              // X
-                                                                                                              // (left)
-                  .withRotationalRate(-xboxController.getRightX() * MaxAngularRate) // Drive counterclockwise with
-                                                                                    // negative
-                                                                                    // X (left)
-          ));
+      drivetrainSubsys.setDefaultCommand(driveFieldCentric(kDriveTranslationScale, kDriveRotationScale));
     }
   }
 
+  /*
+   * Field centric driving off the shaped sticks, scaled down by the given
+   * amounts. This goes through the drivetrain's setpoint generator.
+   */
+  private Command driveFieldCentric(double translationScale, double rotationScale) {
+    return drivetrainSubsys.run(() -> drivetrainSubsys.driveFieldCentric(
+        translationScale * operatorInput.getTranslationX() * MaxSpeed,
+        translationScale * operatorInput.getTranslationY() * MaxSpeed,
+        rotationScale * operatorInput.getRotation() * MaxAngularRate));
+  }
+
+  /* Robot centric version of driveFieldCentric, also through the setpoint generator */
+  private Command driveRobotCentric(double translationScale, double rotationScale) {
+    return drivetrainSubsys.run(() -> drivetrainSubsys.driveRobotCentric(
+        translationScale * operatorInput.getTranslationX() * MaxSpeed,
+        translationScale * operatorInput.getTranslationY() * MaxSpeed,
+        rotationScale * operatorInput.getRotation() * MaxAngularRate));
+  }
+
   /*
    * Function that is called in the constructor where we configure operator
    * interface button bindings.
@@ -169,31 +216,20 @@ public class RobotContainer {
       // joystick2.button(3).onTrue(pivotSubsys.setAngle(90));
       // joystick2.button(4).onTrue(pivotSubsys.setAngle(150));
     } else {
-      xboxController.leftTrigger().whileTrue(
-          drivetrainSubsys.applyRequest(
-              () -> drive.withVelocityX(0.1 * polarityChooser.getSelected() * -xboxController.getLeftY() * MaxSpeed)
-                  .withVelocityY(0.1 * polarityChooser.getSelected() * -xboxController.getLeftX() * MaxSpeed) // Drive
-                                                                                                              // left
-                                                                                                              // with
-                                                                                                              // negative
-                                                                                                              // X
-                                                                                                              // (left)
-                  .withRotationalRate(0.3 * -xboxController.getRightX() * MaxAngularRate))); // Drive counterclockwise
-                                                                                             // with negative
+      xboxController.leftTrigger().whileTrue(driveFieldCentric(kPrecisionTranslationScale, kPrecisionRotationScale));
       xboxController.rightBumper().onTrue(superstructure.getCoral());
-      xboxController.rightTrigger().whileTrue(
-          drivetrainSubsys.applyRequest(() -> robocentricDrive
-              .withVelocityX(0.1 * polarityChooser.getSelected() * -xboxController.getLeftY() * MaxSpeed)
-              .withVelocityY(0.1 * polarityChooser.getSelected() * -xboxController.getLeftX() * MaxSpeed) // Drive left
-                                                                                                          // with
-                                                                                                          // negative X
-                                                                                                          // (left)
-              .withRotationalRate(0.3 * -xboxController.getRightX() * MaxAngularRate)) // Drive counterclockwise with
-                                                                                       // negative
-      );
+      xboxController.rightTrigger().whileTrue(driveRobotCentric(kPrecisionTranslationScale, kPrecisionRotationScale));
+
+      // drive around anything in the way, let go to take back over
+      xboxController.leftBumper().whileTrue(drivetrainSubsys.pathfindToCoralStation());
+
+      xboxController.povLeft().whileTrue(drivetrainSubsys.alignToReef(Direction.Left));
+      xboxController.povRight().whileTrue(drivetrainSubsys.alignToReef(Direction.Right));
 
       xboxController.povUp().onTrue(climberSubsys.runIn()).onFalse(climberSubsys.stop());
       xboxController.povDown().onTrue(climberSubsys.runOut()).onFalse(climberSubsys.stop());
+      // The position climb stays off the controller and out of autos until the
+      // climber's gearing, angles and gains are measured
 
       xboxController.b().onTrue(pivotSubsys.setAngle(0.0));
       xboxController.x().onTrue(intakeSubsys.runIntake(0.2).until(() -> !intakeSubsys.sensorIsTriggered())
@@ -215,15 +251,12 @@ public class RobotContainer {
 
       joystick.button(8).onTrue(superstructure.scoreAlgae());
       joystick.button(10).onTrue(superstructure.setAlgaeProcesser());
+      joystick.button(9).whileTrue(drivetrainSubsys.pathfindToProcessor());
 
       drivetrainSubsys.registerTelemetry(logger::telemeterize);
     }
   }
 
-  // public void startPose() {
-  // drivetrainSubsys.resetPose(flyPathPosesConstants.startingPose);
-  // }
-
   public Command getAutonomousCommand() {
     return autoChooser.getSelected();
   }
@@ -232,6 +265,38 @@ public class RobotContainer {
     SmartDashboard.putData(autoChooser);
   }
 
+  /**
+   * One robot loop, everything robotPeriodic does. Robot, AutoSimRunner and
+   * the allocation test all run the loop through here.
+   *
+   * @param loopStartMicros When the loop started in FPGA microseconds
+   */
+  public void robotPeriodic(long loopStartMicros) {
+    LoopGovernor.startLoop(loopStartMicros);
+    runtimeMonitor.periodic();
+    // read the driver's sticks once, before any command uses them
+    operatorInput.sample();
+    // When the loop is running long only the cameras seeing the most tags are
+    // read, the rest catch up once there's time again
+    visionFusion.fuse(LoopGovernor.isEnabled(Work.ExtraCameras));
+    CommandScheduler.getInstance().run();
+    mechanismVisualizer.periodic();
+    LoopGovernor.endLoop();
+  }
+
+  // if anything is still moving, for the auto profiler
+  private boolean isRobotMoving() {
+    var speeds = drivetrainSubsys.getState().Speeds;
+    return Math.hypot(speeds.vxMetersPerSecond, speeds.vyMetersPerSecond) > kStoppedSpeedMetersPerSecond
+        || Math.abs(speeds.omegaRadiansPerSecond) > kStoppedRateRadiansPerSecond
+        || !elevatorSubsys.isNearGoal() || !pivotSubsys.isNearGoal() || intakeSubsys.isRunning();
+  }
+
+  // compiles the auto and pathing code while we wait to be enabled
+  public void warmUp() {
+    warmUp.periodic();
+  }
+
   public void updatePose() {
     // puts the drivetrain pose on our dashboards
     SmartDashboard.putNumber("estimated drive pose x", drivetrainSubsys.getState().Pose.getX());
@@ -305,6 +370,14 @@ public class RobotContainer {
     drivetrainSubsys.resetPose(newestPose);
   }
 
+  AutoLoader getAutoLoader() {
+    return autoLoader;
+  }
+
+  DrivetrainSubsystem getDrivetrain() {
+    return drivetrainSubsys;
+  }
+
   public void updateSimulation() {
     vision.visionSim.update(drivetrainSubsys.getState().Pose);
     vision.visionSim.getDebugField();
@@ -0,0 +1,180 @@
+/*
+ * Copyright (C) 2025 Team 3602 All rights reserved. This work is
+ * licensed under the terms of the MIT license which can be found
+ * in the root directory of this project.
+ */
+
+package frc.team3602.robot;
+
+import java.lang.management.CompilationMXBean;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.RuntimeMXBean;
+import java.util.ArrayDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.openmbean.CompositeData;
+
+import com.ctre.phoenix6.SignalLogger;
+import com.sun.management.GarbageCollectionNotificationInfo;
+
+import edu.wpi.first.networktables.DoublePublisher;
+import edu.wpi.first.networktables.IntegerPublisher;
+import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.wpilibj.TimedRobot;
+import edu.wpi.first.wpilibj.Timer;
+
+/**
+ * Records every GC pause and burst of JIT compiling, and works out which long
+ * loops they caused.
+ * <p>
+ * The JVM tells us about each collection on its own thread as it finishes, so
+ * those get queued with their FPGA start and end times. JIT time only comes as
+ * a running total, so we check it once per loop and call it a burst when a
+ * loop's worth of compiling passes a few milliseconds. The compiler threads
+ * don't stop ours, but on the roboRIO's two cores they take the CPU from it.
+ * <p>
+ * A loop that starts more than a quarter period late is a spike. Each spike
+ * waits half a second for any GC notification to catch up, then gets blamed
+ * on whatever overlapped it, or nothing. Counts and the last pause go to the
+ * "RuntimeHealth" table, every event goes to the log.
+ */
+public class RuntimeMonitor {
+  private static final double kSpikeSeconds = TimedRobot.kDefaultPeriod * 1.25;
+  private static final double kJitBurstSeconds = 0.005;
+  private static final double kResolveDelay = 0.5;
+  private static final double kHistorySeconds = 5.0;
+
+  /* A GC pause or JIT burst in FPGA seconds */
+  private record Event(boolean gc, double start, double end) {
+    boolean overlaps(Event other) {
+      return start <= other.end && other.start <= end;
+    }
+  }
+
+  private final RuntimeMXBean runtime = ManagementFactory.getRuntimeMXBean();
+  /* Null if this JVM doesn't track compile time */
+  private final CompilationMXBean compiler;
+  private long lastCompileMillis;
+
+  /* Filled by the JVM's notification thread, drained by the main loop */
+  private final ConcurrentLinkedQueue<Event> newPauses = new ConcurrentLinkedQueue<>();
+
+  /* Main loop only */
+  private final ArrayDeque<Event> events = new ArrayDeque<>();
+  private final ArrayDeque<Event> spikes = new ArrayDeque<>();
+  private long gcCount = 0;
+  private double gcSeconds = 0.0;
+  private double maxGcSeconds = 0.0;
+  private long jitBursts = 0;
+  private long spikeCount = 0;
+  private long spikesFromGc = 0;
+  private long spikesFromJit = 0;
+
+  private final NetworkTable table = NetworkTableInstance.getDefault().getTable("RuntimeHealth");
+  private final IntegerPublisher gcCountPub = table.getIntegerTopic("GCCount").publish();
+  private final DoublePublisher gcTimePub = table.getDoubleTopic("GCTotalTime").publish();
+  private final DoublePublisher lastGcPub = table.getDoubleTopic("GCLastPause").publish();
+  private final DoublePublisher maxGcPub = table.getDoubleTopic("GCMaxPause").publish();
+  private final IntegerPublisher jitBurstsPub = table.getIntegerTopic("JITBursts").publish();
+  private final IntegerPublisher spikesPub = table.getIntegerTopic("LoopSpikes").publish();
+  private final IntegerPublisher spikesFromGcPub = table.getIntegerTopic("SpikesFromGC").publish();
+  private final IntegerPublisher spikesFromJitPub = table.getIntegerTopic("SpikesFromJIT").publish();
+
+  public RuntimeMonitor() {
+    for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+      if (collector instanceof NotificationEmitter emitter) {
+        emitter.addNotificationListener(this::onCollection, null, null);
+      }
+    }
+
+    var compilationBean = ManagementFactory.getCompilationMXBean();
+    compiler = (compilationBean != null && compilationBean.isCompilationTimeMonitoringSupported()) ? compilationBean
+        : null;
+    lastCompileMillis = (compiler != null) ? compiler.getTotalCompilationTime() : 0;
+  }
+
+  /** Call once per loop, right after {@link LoopGovernor#startLoop(long)}. */
+  public void periodic() {
+    double now = LoopGovernor.getLoopStartSeconds();
+    double period = LoopGovernor.getLoopPeriodSeconds();
+    boolean changed = false;
+
+    Event pause;
+    while ((pause = newPauses.poll()) != null) {
+      double seconds = pause.end() - pause.start();
+      ++gcCount;
+      gcSeconds += seconds;
+      maxGcSeconds = Math.max(maxGcSeconds, seconds);
+      lastGcPub.set(seconds);
+      SignalLogger.writeDouble("Runtime/GCPause", seconds, "seconds");
+      events.add(pause);
+      changed = true;
+    }
+
+    if (compiler != null) {
+      long compileMillis = compiler.getTotalCompilationTime();
+      double compileSeconds = (compileMillis - lastCompileMillis) / 1000.0;
+      lastCompileMillis = compileMillis;
+      if (compileSeconds >= kJitBurstSeconds && period > 0.0) {
+        ++jitBursts;
+        SignalLogger.writeDouble("Runtime/JITBurst", compileSeconds, "seconds");
+        events.add(new Event(false, now - period, now));
+        changed = true;
+      }
+    }
+
+    if (period > kSpikeSeconds) {
+      ++spikeCount;
+      SignalLogger.writeDouble("Runtime/LoopSpike", period, "seconds");
+      spikes.add(new Event(false, now - period, now));
+      changed = true;
+    }
+
+    // Blame spikes once late GC notifications have had time to show up
+    while (!spikes.isEmpty() && now - spikes.peek().end() > kResolveDelay) {
+      Event spike = spikes.poll();
+      boolean fromGc = false;
+      boolean fromJit = false;
+      for (Event event : events) {
+        if (event.overlaps(spike)) {
+          fromGc |= event.gc();
+          fromJit |= !event.gc();
+        }
+      }
+      spikesFromGc += fromGc ? 1 : 0;
+      spikesFromJit += fromJit ? 1 : 0;
+      SignalLogger.writeString("Runtime/SpikeCause", fromGc ? (fromJit ? "GC+JIT" : "GC") : (fromJit ? "JIT" : "none"));
+      changed = true;
+    }
+
+    while (!events.isEmpty() && now - events.peek().end() > kHistorySeconds) {
+      events.poll();
+    }
+
+    if (changed) {
+      gcCountPub.set(gcCount);
+      gcTimePub.set(gcSeconds);
+      maxGcPub.set(maxGcSeconds);
+      jitBurstsPub.set(jitBursts);
+      spikesPub.set(spikeCount);
+      spikesFromGcPub.set(spikesFromGc);
+      spikesFromJitPub.set(spikesFromJit);
+    }
+  }
+
+  /* Runs on the JVM's notification thread after every collection */
+  private void onCollection(Notification notification, Object handback) {
+    if (!notification.getType().equals(GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION)) {
+      return;
+    }
+    var info = GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData()).getGcInfo();
+
+    // GC times are in milliseconds since the JVM started
+    double end = Timer.getFPGATimestamp() - (runtime.getUptime() - info.getEndTime()) / 1000.0;
+    newPauses.add(new Event(true, end - info.getDuration() / 1000.0, end));
+  }
+}
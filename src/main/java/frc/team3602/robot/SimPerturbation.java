@@ -0,0 +1,139 @@
+/*
+ * Copyright (C) 2025 Team 3602 All rights reserved. This work is
+ * licensed under the terms of the MIT license which can be found
+ * in the root directory of this project.
+ */
+
+package frc.team3602.robot;
+
+import java.util.Random;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.wpilibj.Timer;
+
+import frc.team3602.robot.subsystems.DrivetrainSubsystem;
+
+import static frc.team3602.robot.Constants.VisionConstants.kMultiTagStdDevs;
+
+/**
+ * The things that go wrong on a real field, for one Monte Carlo sim run.
+ * <p>
+ * The drivetrain sim is perfect, so its pose is what odometry believes. We
+ * keep a separate true pose that starts somewhere near where the auto thinks
+ * it starts and loses some of every wheel movement to slip. Vision then sees
+ * that true pose with noise and pulls odometry back towards it, the same way
+ * the cameras would. Named commands also get a random delay in front of them
+ * to stand in for mechanisms that don't always take the same time.
+ * <p>
+ * Every setting comes from an {@code autosim.*} system property so the Monte
+ * Carlo runner can pass them to the child JVMs.
+ */
+final class SimPerturbation {
+  private static final double kVisionPeriod = 0.1;
+
+  private final Random random;
+  private final double startErrorMeters;
+  private final double startErrorDegrees;
+  private final double slipFraction;
+  private final double visionStdDevMeters;
+  private final double visionStdDevDegrees;
+  private final double mechanismJitterSeconds;
+
+  /* How much this run's carpet slips on top of the random slip every loop */
+  private final double runSlip;
+
+  private Pose2d truePose = null;
+  /* True heading minus what the gyro says, the gyro itself doesn't drift */
+  private Rotation2d headingOffset = Rotation2d.kZero;
+  private double lastVisionTime = Double.NEGATIVE_INFINITY;
+
+  private SimPerturbation(long seed) {
+    random = new Random(seed);
+    startErrorMeters = getSetting("startErrorMeters", 0.05);
+    startErrorDegrees = getSetting("startErrorDegrees", 2.0);
+    slipFraction = getSetting("slipFraction", 0.03);
+    visionStdDevMeters = getSetting("visionStdDevMeters", 0.05);
+    visionStdDevDegrees = getSetting("visionStdDevDegrees", 2.0);
+    mechanismJitterSeconds = getSetting("mechanismJitterSeconds", 0.1);
+
+    runSlip = random.nextDouble() * slipFraction;
+  }
+
+  /**
+   * @return The perturbation for this run, or null if this isn't a Monte Carlo
+   *         run
+   */
+  static SimPerturbation fromSystemProperties() {
+    String seed = System.getProperty("autosim.seed");
+    return (seed == null) ? null : new SimPerturbation(Long.parseLong(seed));
+  }
+
+  /**
+   * Places the robot near where odometry thinks it is.
+   *
+   * @param odometryPose Where the auto thinks we start
+   */
+  void start(Pose2d odometryPose) {
+    var offset = new Translation2d(Math.abs(random.nextGaussian()) * startErrorMeters,
+        Rotation2d.fromRadians(random.nextDouble() * 2.0 * Math.PI));
+    headingOffset = Rotation2d.fromDegrees(random.nextGaussian() * startErrorDegrees);
+    truePose = new Pose2d(odometryPose.getTranslation().plus(offset), odometryPose.getRotation().plus(headingOffset));
+  }
+
+  /**
+   * @return If {@link #start} has been called
+   */
+  boolean isStarted() {
+    return truePose != null;
+  }
+
+  /**
+   * Moves the true pose by what the wheels did, minus slip, and feeds vision
+   * a noisy look at it. Call once per loop after the scheduler.
+   *
+   * @param drivetrain Drivetrain being simulated
+   * @param dt         Loop period in seconds
+   */
+  void update(DrivetrainSubsystem drivetrain, double dt) {
+    var state = drivetrain.getState();
+    var heading = state.Pose.getRotation().plus(headingOffset);
+
+    double scale = 1.0 - runSlip - Math.abs(random.nextGaussian()) * slipFraction / 2.0;
+    double vx = state.Speeds.vxMetersPerSecond * scale;
+    double vy = state.Speeds.vyMetersPerSecond * scale;
+    truePose = new Pose2d(
+        truePose.getX() + (vx * heading.getCos() - vy * heading.getSin()) * dt,
+        truePose.getY() + (vx * heading.getSin() + vy * heading.getCos()) * dt,
+        heading);
+
+    double now = Timer.getFPGATimestamp();
+    if (now - lastVisionTime >= kVisionPeriod) {
+      lastVisionTime = now;
+      var seen = new Pose2d(
+          truePose.getX() + random.nextGaussian() * visionStdDevMeters,
+          truePose.getY() + random.nextGaussian() * visionStdDevMeters,
+          truePose.getRotation().plus(Rotation2d.fromDegrees(random.nextGaussian() * visionStdDevDegrees)));
+      drivetrain.addVisionMeasurement(seen, now, kMultiTagStdDevs);
+    }
+  }
+
+  /**
+   * @return Random extra time for one mechanism command
+   */
+  double nextMechanismDelay() {
+    return Math.abs(random.nextGaussian()) * mechanismJitterSeconds;
+  }
+
+  /**
+   * @return Where the robot really is
+   */
+  Pose2d getTruePose() {
+    return truePose;
+  }
+
+  private static double getSetting(String name, double defaultValue) {
+    return Double.parseDouble(System.getProperty("autosim." + name, Double.toString(defaultValue)));
+  }
+}
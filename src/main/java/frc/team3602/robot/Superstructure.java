@@ -6,12 +6,16 @@
 
 package frc.team3602.robot;
 
+import java.util.function.BooleanSupplier;
 import java.util.function.DoubleSupplier;
 
+import edu.wpi.first.math.filter.Debouncer;
+import edu.wpi.first.wpilibj.DriverStation;
 import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 import edu.wpi.first.wpilibj2.command.*;
 import static edu.wpi.first.wpilibj2.command.Commands.*;
 
+import static frc.team3602.robot.Constants.AutonConstants.*;
 import static frc.team3602.robot.Constants.ElevatorConstants.*;
 import static frc.team3602.robot.Constants.IntakeConstants.*;
 import static frc.team3602.robot.Constants.PivotConstants.*;
@@ -281,8 +285,7 @@ public class Superstructure extends SubsystemBase {
                 pivotSubsys.setAngle(stowAngle),
                 waitUntil(pivotSubsys::isNearGoal),
 
-                elevatorSubsys.setHeight(31.0) // scoreLevelFour
-        );
+                elevatorSubsys.setHeight(scoreLevelFour));
     }
 
     public Command autonPrepElevCoralIntake() {
@@ -301,7 +304,7 @@ public class Superstructure extends SubsystemBase {
 
     public Command autonPrepPivotL4() {
         return sequence(
-                pivotSubsys.setAngle(88.0), // scoreL4Angle
+                pivotSubsys.setAngle(scoreL4Angle),
                 waitUntil(pivotSubsys::isNearGoal));
     }
 
@@ -319,6 +322,43 @@ public class Superstructure extends SubsystemBase {
                 waitUntil(pivotSubsys::isStowed));
     }
 
+    /*
+     * Auton waits, these finish as soon as the mechanisms are actually there
+     * instead of after a fixed time. The timeouts are only a backstop so a
+     * mechanism that never quite gets there can't stall the whole auto.
+     */
+    public Command autonWaitForElevator() {
+        return waitUntilSettled("waitForElevator", elevatorSubsys::isNearGoal, kMechanismTimeout);
+    }
+
+    public Command autonWaitForPivot() {
+        return waitUntilSettled("waitForPivot", pivotSubsys::isNearGoal, kMechanismTimeout);
+    }
+
+    public Command autonWaitAtGoal() {
+        return waitUntilSettled("waitAtGoal", () -> elevatorSubsys.isNearGoal() && pivotSubsys.isNearGoal(),
+                kMechanismTimeout);
+    }
+
+    // the pivot can swing out once the elevator has lifted it clear of the frame
+    public Command autonWaitForPivotClearance() {
+        return waitUntil(() -> elevatorSubsys.getHeightInches() >= pivotStowHeight)
+                .withTimeout(kPivotClearanceTimeout);
+    }
+
+    private Command waitUntilSettled(String name, BooleanSupplier atGoal, double timeout) {
+        var debouncer = new Debouncer(kSettleSeconds);
+        return sequence(
+                Commands.runOnce(() -> debouncer.calculate(false)),
+                waitUntil(() -> debouncer.calculate(atGoal.getAsBoolean())))
+                .withTimeout(timeout)
+                .finallyDo(() -> {
+                    if (!atGoal.getAsBoolean()) {
+                        DriverStation.reportWarning(name + " timed out", false);
+                    }
+                });
+    }
+
     public Command autonShoot() {
         return intakeSubsys.runIntake(1.0).until(() -> !intakeSubsys.sensorIsTriggered());
     }
@@ -121,6 +121,9 @@ public class Telemetry {
         fieldPub.set(m_poseArray);
 
         /* Telemeterize the module states to a Mechanism2d */
+        if (!LoopGovernor.isEnabled(LoopGovernor.Work.MechanismViz)) {
+            return;
+        }
         for (int i = 0; i < 4; ++i) {
             m_moduleSpeeds[i].setAngle(state.ModuleStates[i].angle);
             m_moduleDirections[i].setAngle(state.ModuleStates[i].angle);
@@ -6,6 +6,7 @@
 
 package frc.team3602.robot;
 
+import java.util.ArrayList;
 import java.util.Optional;
 import org.photonvision.EstimatedRobotPose;
 import org.photonvision.PhotonCamera;
@@ -19,11 +20,15 @@ import org.photonvision.targeting.PhotonPipelineResult;
 import edu.wpi.first.apriltag.AprilTagFieldLayout;
 import edu.wpi.first.apriltag.AprilTagFields;
 import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Pose3d;
 import edu.wpi.first.math.geometry.Rotation2d;
 import static frc.team3602.robot.Constants.VisionConstants.*;
 import frc.team3602.robot.subsystems.DrivetrainSubsystem;
 
-public class Vision {
+/** PhotonVision, the cameras on the robot or their sim. */
+public class Vision implements VisionIO {
+    public static final int kCameraCount = 4;
+
     /* Camerae */
     public final PhotonCamera mod0Camera = new PhotonCamera("mod0Cam");
     public final PhotonCamera mod1Camera = new PhotonCamera("mod1Cam");
@@ -44,6 +49,10 @@ public class Vision {
     private final PhotonPoseEstimator photonPoseEstimator3 = new PhotonPoseEstimator(kFieldLayout,
             PoseStrategy.LOWEST_AMBIGUITY, kRobotToMod3CameraTransform);
 
+    /* Only used to warm up, so the real estimators keep their history */
+    private final PhotonPoseEstimator warmUpPoseEstimator = new PhotonPoseEstimator(kFieldLayout,
+            PoseStrategy.LOWEST_AMBIGUITY, kRobotToMod1CameraTransform);
+
     /* Camera Simulation */
     public final VisionSystemSim visionSim = new VisionSystemSim("Vision Sim");
     private final SimCameraProperties cameraProperties = new SimCameraProperties();
@@ -63,6 +72,7 @@ public class Vision {
         photonPoseEstimator1.setMultiTagFallbackStrategy(PoseStrategy.LOWEST_AMBIGUITY);
         photonPoseEstimator2.setMultiTagFallbackStrategy(PoseStrategy.LOWEST_AMBIGUITY);
         photonPoseEstimator3.setMultiTagFallbackStrategy(PoseStrategy.LOWEST_AMBIGUITY);
+        warmUpPoseEstimator.setMultiTagFallbackStrategy(PoseStrategy.LOWEST_AMBIGUITY);
 
         // Generate a VisionSystemSim
         visionSim.addAprilTags(kFieldLayout);
@@ -145,6 +155,67 @@ public class Vision {
         return Mod3RobotPose;
     }
 
+    /**
+     * @param module Which module's camera, 0 to 3
+     * @return The camera's latest estimate, if it has a new one
+     */
+    public Optional<EstimatedRobotPose> getEstimatedPose(int module) {
+        switch (module) {
+            case 0:
+                return getMod0EstimatedPose();
+            case 1:
+                return getMod1EstimatedPose();
+            case 2:
+                return getMod2EstimatedPose();
+            default:
+                return getMod3EstimatedPose();
+        }
+    }
+
+    @Override
+    public void updateInputs(VisionIO.Inputs inputs) {
+        for (int module = 0; module < kCameraCount; ++module) {
+            inputs.hasEstimate[module] = false;
+            if (!inputs.read[module]) {
+                continue;
+            }
+
+            var estimate = getEstimatedPose(module);
+            if (estimate.isPresent()) {
+                // We only fuse the 2d pose, so that's all we keep
+                var pose = estimate.get().estimatedPose.toPose2d();
+                inputs.hasEstimate[module] = true;
+                inputs.x[module] = pose.getX();
+                inputs.y[module] = pose.getY();
+                inputs.rotation[module] = pose.getRotation().getRadians();
+                inputs.timestamp[module] = estimate.get().timestampSeconds;
+
+                var targets = estimate.get().targetsUsed;
+                double distance = 0.0;
+                for (int i = 0; i < targets.size(); ++i) {
+                    distance += targets.get(i).getBestCameraToTarget().getTranslation().getNorm();
+                }
+                inputs.tagCount[module] = targets.size();
+                inputs.tagDistance[module] = targets.isEmpty() ? 0.0 : distance / targets.size();
+                inputs.ambiguity[module] = (targets.size() == 1) ? targets.get(0).getPoseAmbiguity() : 0.0;
+            }
+        }
+    }
+
+    /**
+     * Runs a simulated frame through pose estimation without publishing it, so
+     * the JIT has compiled the estimator before the first real tags. Safe on
+     * the robot, the sim only does the math.
+     *
+     * @param robotPose Where to pretend the robot is
+     */
+    public void warmUp(Pose2d robotPose) {
+        var result = camera1Sim.process(cameraProperties.getAvgLatencyMs(),
+                new Pose3d(robotPose).plus(kRobotToMod1CameraTransform),
+                new ArrayList<>(visionSim.getVisionTargets()));
+        warmUpPoseEstimator.update(result);
+    }
+
     public void updateViz(Pose2d pose) {
         visionSim.update(pose);
     }
@@ -0,0 +1,161 @@
+/*
+ * Copyright (C) 2025 Team 3602 All rights reserved. This work is
+ * licensed under the terms of the MIT license which can be found
+ * in the root directory of this project.
+ */
+
+package frc.team3602.robot;
+
+import edu.wpi.first.math.Matrix;
+import edu.wpi.first.math.Nat;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.numbers.N1;
+import edu.wpi.first.math.numbers.N3;
+
+import frc.team3602.robot.logging.InputLog;
+import frc.team3602.robot.logging.InputLog.LoggedInputs;
+import frc.team3602.robot.logging.InputLog.LoggedOutput;
+
+import static frc.team3602.robot.Constants.VisionConstants.*;
+
+/**
+ * Picks which cameras to read each loop and hands their estimates to the
+ * drivetrain.
+ * <p>
+ * Estimates are trusted less the fewer tags they used and the further away
+ * those tags were. Single tag estimates that are ambiguous or too far from
+ * their tag are thrown out, as is anything off the field.
+ * <p>
+ * Like the mechanisms, this only sees the cameras through a {@link VisionIO}
+ * and logs what it read, so replaying a match gives back the same
+ * measurements. The drivetrain's pose estimator isn't part of that, it runs
+ * inside Phoenix on its own thread.
+ */
+public class VisionFusion {
+  /** Takes a vision measurement, usually the drivetrain's pose estimator. */
+  @FunctionalInterface
+  public interface MeasurementConsumer {
+    /**
+     * @param pose             Robot pose in field coordinates
+     * @param timestampSeconds When the frame was taken, FPGA seconds
+     * @param stdDevs          How far to trust it, [x, y, theta] in meters and
+     *                         radians. Only valid during the call
+     */
+    void accept(Pose2d pose, double timestampSeconds, Matrix<N3, N1> stdDevs);
+  }
+
+  private final VisionIO io;
+  private final MeasurementConsumer measurements;
+  private final VisionIO.Inputs inputs = new VisionIO.Inputs();
+  private final LoggedInputs loggedInputs = InputLog.inputs("Vision", inputs);
+
+  /* What each camera gave the drivetrain this loop, NaN if nothing */
+  private final LoggedOutput[] fusedX = new LoggedOutput[Vision.kCameraCount];
+  private final LoggedOutput[] fusedY = new LoggedOutput[Vision.kCameraCount];
+  private final LoggedOutput[] fusedRotation = new LoggedOutput[Vision.kCameraCount];
+  private final LoggedOutput[] fusedTimestamp = new LoggedOutput[Vision.kCameraCount];
+  private final LoggedOutput[] fusedStdDev = new LoggedOutput[Vision.kCameraCount];
+
+  /* Reused for every measurement so fusing doesn't allocate */
+  private final Matrix<N3, N1> stdDevs = new Matrix<>(Nat.N3(), Nat.N1());
+
+  /* Tags each camera used in its last estimate */
+  private final int[] tagsUsed = new int[Vision.kCameraCount];
+
+  /**
+   * @param io           Cameras on the robot or in sim, or nothing when
+   *                     replaying a log
+   * @param measurements Where the estimates go
+   */
+  public VisionFusion(VisionIO io, MeasurementConsumer measurements) {
+    this.io = io;
+    this.measurements = measurements;
+
+    for (int module = 0; module < Vision.kCameraCount; ++module) {
+      fusedX[module] = InputLog.output("Vision/Camera" + module + "/X");
+      fusedY[module] = InputLog.output("Vision/Camera" + module + "/Y");
+      fusedRotation[module] = InputLog.output("Vision/Camera" + module + "/Rotation");
+      fusedTimestamp[module] = InputLog.output("Vision/Camera" + module + "/Timestamp");
+      fusedStdDev[module] = InputLog.output("Vision/Camera" + module + "/StdDev");
+    }
+  }
+
+  /**
+   * Feeds the newest estimates into the drivetrain.
+   *
+   * @param allCameras If every camera should be read, otherwise only the ones
+   *                   seeing the most tags are and the rest catch up later
+   */
+  public void fuse(boolean allCameras) {
+    for (int module = 0; module < Vision.kCameraCount; ++module) {
+      inputs.read[module] = allCameras || isBestCamera(module, kCamerasWhenShedding);
+    }
+
+    // Everything below only depends on the inputs, so replaying them gives
+    // back the same measurements
+    io.updateInputs(inputs);
+    loggedInputs.process();
+
+    for (int module = 0; module < Vision.kCameraCount; ++module) {
+      if (!inputs.hasEstimate[module] || !isTrustworthy(module)) {
+        if (inputs.read[module]) {
+          tagsUsed[module] = 0;
+        }
+        fusedX[module].record(Double.NaN);
+        fusedY[module].record(Double.NaN);
+        fusedRotation[module].record(Double.NaN);
+        fusedTimestamp[module].record(Double.NaN);
+        fusedStdDev[module].record(Double.NaN);
+        continue;
+      }
+
+      var base = (inputs.tagCount[module] > 1) ? kMultiTagStdDevs : kSingleTagStdDevs;
+      double distance = inputs.tagDistance[module];
+      double scale = 1.0 + distance * distance * kStdDevsPerSquareMeter;
+      for (int row = 0; row < 3; ++row) {
+        stdDevs.set(row, 0, base.get(row, 0) * scale);
+      }
+
+      tagsUsed[module] = inputs.tagCount[module];
+      measurements.accept(new Pose2d(inputs.x[module], inputs.y[module],
+          Rotation2d.fromRadians(inputs.rotation[module])), inputs.timestamp[module], stdDevs);
+      fusedX[module].record(inputs.x[module]);
+      fusedY[module].record(inputs.y[module]);
+      fusedRotation[module].record(inputs.rotation[module]);
+      fusedTimestamp[module].record(inputs.timestamp[module]);
+      fusedStdDev[module].record(stdDevs.get(0, 0));
+    }
+  }
+
+  /* If a camera's estimate is worth handing to the drivetrain */
+  private boolean isTrustworthy(int module) {
+    double x = inputs.x[module];
+    double y = inputs.y[module];
+    if (x < -kFieldMarginMeters || x > kFieldLayout.getFieldLength() + kFieldMarginMeters
+        || y < -kFieldMarginMeters || y > kFieldLayout.getFieldWidth() + kFieldMarginMeters) {
+      return false;
+    }
+    if (inputs.tagCount[module] == 1) {
+      return inputs.ambiguity[module] <= kMaxSingleTagAmbiguity
+          && inputs.tagDistance[module] <= kMaxSingleTagMeters;
+    }
+    return inputs.tagCount[module] > 1;
+  }
+
+  /**
+   * @param module Which module's camera, 0 to 3
+   * @param count  How many cameras count as the best
+   * @return If the camera is one of the ones that used the most tags in
+   *         their last estimates, ties go to the lower module
+   */
+  public boolean isBestCamera(int module, int count) {
+    int better = 0;
+    for (int other = 0; other < Vision.kCameraCount; ++other) {
+      if (tagsUsed[other] > tagsUsed[module] || (tagsUsed[other] == tagsUsed[module] && other < module)) {
+        ++better;
+      }
+    }
+    return better < count;
+  }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright (C) 2025 Team 3602 All rights reserved. This work is
+ * licensed under the terms of the MIT license which can be found
+ * in the root directory of this project.
+ */
+
+package frc.team3602.robot;
+
+import java.nio.ByteBuffer;
+
+import frc.team3602.robot.logging.LoggableInputs;
+
+/**
+ * Pose estimates from the cameras.
+ * <p>
+ * {@link Vision} is PhotonVision, on the robot and through its camera sim.
+ * Replay uses these defaults, which do nothing, and the inputs come from the
+ * log.
+ */
+public interface VisionIO {
+    /** The newest estimate from each camera this loop. */
+    class Inputs implements LoggableInputs {
+        /* Filled in by VisionFusion, which cameras it asked for */
+        public final boolean[] read = new boolean[Vision.kCameraCount];
+        public final boolean[] hasEstimate = new boolean[Vision.kCameraCount];
+        /* Field pose of the robot, meters and radians */
+        public final double[] x = new double[Vision.kCameraCount];
+        public final double[] y = new double[Vision.kCameraCount];
+        public final double[] rotation = new double[Vision.kCameraCount];
+        /* When the frame was taken, FPGA seconds */
+        public final double[] timestamp = new double[Vision.kCameraCount];
+        public final int[] tagCount = new int[Vision.kCameraCount];
+        /* Average distance from the camera to the tags it used, meters */
+        public final double[] tagDistance = new double[Vision.kCameraCount];
+        /* Pose ambiguity of a single tag estimate, 0 with more tags */
+        public final double[] ambiguity = new double[Vision.kCameraCount];
+
+        @Override
+        public String getTypeName() {
+            return "VisionInputs";
+        }
+
+        @Override
+        public String getSchema() {
+            int n = Vision.kCameraCount;
+            return "bool read[" + n + "];bool hasEstimate[" + n + "];double x[" + n + "];double y[" + n
+                    + "];double rotation[" + n + "];double timestamp[" + n + "];int32 tagCount[" + n + "];double tagDistance["
+                    + n + "];double ambiguity[" + n + "]";
+        }
+
+        @Override
+        public int getSize() {
+            return Vision.kCameraCount * (2 + 6 * Double.BYTES + Integer.BYTES);
+        }
+
+        @Override
+        public void pack(ByteBuffer bb) {
+            for (boolean value : read) {
+                bb.put((byte) (value ? 1 : 0));
+            }
+            for (boolean value : hasEstimate) {
+                bb.put((byte) (value ? 1 : 0));
+            }
+            putDoubles(bb, x);
+            putDoubles(bb, y);
+            putDoubles(bb, rotation);
+            putDoubles(bb, timestamp);
+            for (int value : tagCount) {
+                bb.putInt(value);
+            }
+            putDoubles(bb, tagDistance);
+            putDoubles(bb, ambiguity);
+        }
+
+        @Override
+        public void unpack(ByteBuffer bb) {
+            for (int i = 0; i < read.length; ++i) {
+                read[i] = bb.get() != 0;
+            }
+            for (int i = 0; i < hasEstimate.length; ++i) {
+                hasEstimate[i] = bb.get() != 0;
+            }
+            getDoubles(bb, x);
+            getDoubles(bb, y);
+            getDoubles(bb, rotation);
+            getDoubles(bb, timestamp);
+            for (int i = 0; i < tagCount.length; ++i) {
+                tagCount[i] = bb.getInt();
+            }
+            getDoubles(bb, tagDistance);
+            getDoubles(bb, ambiguity);
+        }
+
+        private static void putDoubles(ByteBuffer bb, double[] values) {
+            for (double value : values) {
+                bb.putDouble(value);
+            }
+        }
+
+        private static void getDoubles(ByteBuffer bb, double[] values) {
+            for (int i = 0; i < values.length; ++i) {
+                values[i] = bb.getDouble();
+            }
+        }
+    }
+
+    /**
+     * Reads the cameras in {@code inputs.read}, the rest get no estimate.
+     *
+     * @param inputs Inputs to read into
+     */
+    default void updateInputs(Inputs inputs) {
+    }
+}
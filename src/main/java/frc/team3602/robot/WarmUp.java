@@ -0,0 +1,122 @@
+/*
+ * Copyright (C) 2025 Team 3602 All rights reserved. This work is
+ * licensed under the terms of the MIT license which can be found
+ * in the root directory of this project.
+ */
+
+package frc.team3602.robot;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import edu.wpi.first.wpilibj.DataLogManager;
+import edu.wpi.first.wpilibj.DriverStation;
+
+import frc.team3602.robot.field.FieldGeometry;
+import frc.team3602.robot.pathing.AutoLoader;
+import frc.team3602.robot.pathing.AutoLoader.AutoRoutine;
+import frc.team3602.robot.subsystems.DrivetrainSubsystem;
+
+/**
+ * Gets the JIT to compile everything an auto or on-the-fly path runs before we
+ * enable, so the first one doesn't stall in the interpreter.
+ * <p>
+ * Call {@link #periodic()} from disabledPeriodic. Each loop it runs a few
+ * milliseconds of tasks, picking up where the last loop left off: following a
+ * path from every reef branch into the math only, a simulated camera frame
+ * through pose estimation, building every Superstructure command and building
+ * every auto. Nothing gets scheduled and nothing is sent to a motor. After
+ * enough rounds that the hot methods have all been compiled it stops for good.
+ */
+public class WarmUp {
+  /* Leaves plenty of the 20 ms loop for everything else */
+  private static final long kBudgetNanos = 8_000_000;
+  private static final int kRounds = 50;
+
+  private final List<Runnable> tasks = new ArrayList<>();
+  private int nextTask = 0;
+  private int round = 0;
+  private long totalNanos = 0;
+
+  public WarmUp(DrivetrainSubsystem drivetrainSubsys, Vision vision, Superstructure superstructure,
+      AutoLoader autoLoader) {
+    for (int branch = 0; branch < FieldGeometry.kReefBranchCount; ++branch) {
+      int start = branch;
+      tasks.add(() -> drivetrainSubsys.warmUpPathing(start));
+      tasks.add(() -> vision.warmUp(FieldGeometry.getBlueReefBranchPose(start)));
+    }
+
+    // Only built, the commands are thrown away without ever being scheduled
+    tasks.add(() -> {
+      superstructure.getCoral();
+      superstructure.scoreL1Coral();
+      superstructure.scoreL2Coral();
+      superstructure.scoreL3Coral();
+      superstructure.scoreL4Coral();
+      superstructure.score();
+      superstructure.down();
+      superstructure.grabAlgaeHigh();
+      superstructure.grabAlgaeLow();
+      superstructure.holdAlgae();
+      superstructure.setAlgaeProcesser();
+      superstructure.scoreAlgae();
+      superstructure.intakeAlgae();
+      superstructure.dropAlgae();
+      superstructure.ridIntakeOfCoral();
+    });
+    tasks.add(() -> {
+      superstructure.autonPrepElevL1();
+      superstructure.autonPrepElevL2();
+      superstructure.autonPrepElevL3();
+      superstructure.autonPrepElevL4();
+      superstructure.autonPrepElevCoralIntake();
+      superstructure.autonPrepPivotReef();
+      superstructure.autonPrepPivotL4();
+      superstructure.autonPrepPivotCoralIntake();
+      superstructure.autonPrepPivotAlgae();
+      superstructure.autonShoot();
+      superstructure.autonIntake();
+      superstructure.autonGrabAlgaeHigh();
+      superstructure.autonGrabAlgaeLow();
+      superstructure.autonHoldAlgae();
+    });
+    for (AutoRoutine auto : autoLoader.getAutos()) {
+      tasks.add(() -> autoLoader.buildAuto(auto));
+    }
+  }
+
+  /**
+   * @return If every round has run, or the warm-up gave up
+   */
+  public boolean isDone() {
+    return round >= kRounds;
+  }
+
+  /** Runs tasks until this loop's budget is used up. */
+  public void periodic() {
+    if (isDone()) {
+      return;
+    }
+
+    long startTime = System.nanoTime();
+    try {
+      do {
+        tasks.get(nextTask).run();
+        if (++nextTask == tasks.size()) {
+          nextTask = 0;
+          ++round;
+        }
+      } while (!isDone() && System.nanoTime() - startTime < kBudgetNanos);
+    } catch (Exception e) {
+      // Not worth crashing over, whatever is left just runs cold
+      DriverStation.reportError("Warm-up stopped: " + e.getMessage(), e.getStackTrace());
+      round = kRounds;
+    }
+    totalNanos += System.nanoTime() - startTime;
+
+    if (isDone()) {
+      DataLogManager.log(String.format("Warm-up ran %d tasks %d times in %.0f ms", tasks.size(), kRounds,
+          totalNanos / 1e6));
+    }
+  }
+}
@@ -0,0 +1,268 @@
+/*
+ * Copyright (C) 2025 Team 3602 All rights reserved. This work is
+ * licensed under the terms of the MIT license which can be found
+ * in the root directory of this project.
+ */
+
+package frc.team3602.robot.field;
+
+import com.pathplanner.lib.util.FlippingUtil;
+import com.pathplanner.lib.util.FlippingUtil.FieldSymmetry;
+
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Transform2d;
+import edu.wpi.first.math.geometry.Translation2d;
+
+import frc.team3602.robot.Direction;
+import frc.team3602.robot.pathing.FlyPathCache.CoralStation;
+
+import static frc.team3602.robot.Constants.FieldConstants.*;
+import static frc.team3602.robot.Constants.VisionConstants.kFieldLayout;
+
+/**
+ * Scoring poses around the field, worked out from the AprilTag layout and our
+ * bumpers instead of being typed in by hand.
+ * <p>
+ * Every pose is worked out at startup for both alliances: all 12 reef branches
+ * at each level, both coral stations and the processor. These are the only
+ * copies, pathing reads its goals from here. Asking for one is only an array
+ * lookup. Finding the reef face in front of the robot is too, the
+ * circle around the reef is cut into small sectors and each one already knows
+ * which face it looks at.
+ */
+public final class FieldGeometry {
+  public static final int kReefFaceCount = kBlueReefTagIds.length;
+  public static final int kReefBranchCount = kReefFaceCount * 2;
+
+  private static final int kBlue = 0;
+  private static final int kRed = 1;
+
+  /* Small enough that every sector sits inside one face's 60 degrees */
+  private static final int kSectorCount = 72;
+
+  /* [alliance][branch], see getReefBranchIndex */
+  private static final Pose2d[][] reefBranchPoses = new Pose2d[2][kReefBranchCount];
+  /* [alliance][level][branch] */
+  private static final Pose2d[][][] reefScoringPoses = new Pose2d[2][ReefLevel.values().length][kReefBranchCount];
+  /* [alliance][station] */
+  private static final Pose2d[][] coralStationPoses = new Pose2d[2][CoralStation.values().length];
+  /* [alliance] */
+  private static final Pose2d[] processorPoses = new Pose2d[2];
+
+  /* [alliance], center of the reef */
+  private static final Translation2d[] reefCenters = new Translation2d[2];
+  /* [alliance][sector] -> reef face, sectors start at -pi and go counter clockwise */
+  private static final int[][] sectorFaces = new int[2][kSectorCount];
+
+  static {
+    // Blue first, straight from the tags
+    double centerX = 0.0;
+    double centerY = 0.0;
+    for (int face = 0; face < kReefFaceCount; ++face) {
+      var tagPose = getTagPose(kBlueReefTagIds[face]);
+      centerX += tagPose.getX() / kReefFaceCount;
+      centerY += tagPose.getY() / kReefFaceCount;
+
+      for (Direction side : Direction.values()) {
+        // The tag's Y axis points to the robot's right when we face the tag
+        double lateral = (side == Direction.Left) ? -kReefBranchOffsetMeters : kReefBranchOffsetMeters;
+        int branch = getReefBranchIndex(face, side);
+        reefBranchPoses[kBlue][branch] = tagPose
+            .transformBy(new Transform2d(kRobotLengthMeters / 2.0, lateral, Rotation2d.k180deg));
+
+        for (ReefLevel level : ReefLevel.values()) {
+          // The robot faces the reef, so backing off is along its -X
+          reefScoringPoses[kBlue][level.ordinal()][branch] = reefBranchPoses[kBlue][branch]
+              .transformBy(new Transform2d(-kReefLevelStandoffMeters[level.ordinal()], 0.0, Rotation2d.kZero));
+        }
+      }
+    }
+    reefCenters[kBlue] = new Translation2d(centerX, centerY);
+
+    coralStationPoses[kBlue][CoralStation.Barge.ordinal()] = getTagPose(kBlueBargeStationTagId)
+        .transformBy(new Transform2d(kRobotWidthMeters / 2.0, 0.0, kCoralStationRobotRotation));
+    coralStationPoses[kBlue][CoralStation.NonBarge.ordinal()] = getTagPose(kBlueNonBargeStationTagId)
+        .transformBy(new Transform2d(kRobotWidthMeters / 2.0, 0.0, kCoralStationRobotRotation));
+    processorPoses[kBlue] = getTagPose(kBlueProcessorTagId)
+        .transformBy(new Transform2d(kRobotLengthMeters / 2.0, 0.0, Rotation2d.k180deg));
+
+    // Red is the same field flipped, so the same face and branch indices work
+    for (int branch = 0; branch < kReefBranchCount; ++branch) {
+      reefBranchPoses[kRed][branch] = FlippingUtil.flipFieldPose(reefBranchPoses[kBlue][branch]);
+      for (ReefLevel level : ReefLevel.values()) {
+        reefScoringPoses[kRed][level.ordinal()][branch] = FlippingUtil
+            .flipFieldPose(reefScoringPoses[kBlue][level.ordinal()][branch]);
+      }
+    }
+    for (CoralStation station : CoralStation.values()) {
+      coralStationPoses[kRed][station.ordinal()] = FlippingUtil
+          .flipFieldPose(coralStationPoses[kBlue][station.ordinal()]);
+    }
+    processorPoses[kRed] = FlippingUtil.flipFieldPose(processorPoses[kBlue]);
+    reefCenters[kRed] = FlippingUtil.flipFieldPosition(reefCenters[kBlue]);
+
+    for (int alliance = kBlue; alliance <= kRed; ++alliance) {
+      buildSectors(alliance);
+    }
+  }
+
+  private FieldGeometry() {
+  }
+
+  /**
+   * @param face Reef face, see {@link frc.team3602.robot.Constants.FieldConstants#kBlueReefTagIds}
+   * @param side Which branch on that face, from the robot's point of view
+   * @return Index into the reef branch tables
+   */
+  public static int getReefBranchIndex(int face, Direction side) {
+    return face * 2 + side.ordinal();
+  }
+
+  /**
+   * @param branch Index from {@link #getReefBranchIndex}
+   * @return Pose the robot should be at to score on that branch, blue side
+   */
+  public static Pose2d getBlueReefBranchPose(int branch) {
+    return reefBranchPoses[kBlue][branch];
+  }
+
+  /**
+   * @param branch Index from {@link #getReefBranchIndex}
+   * @param level  Level we're scoring on
+   * @param isRed  If we are on the red alliance
+   * @return Pose the robot should be at to score there, in field coordinates
+   */
+  public static Pose2d getReefScoringPose(int branch, ReefLevel level, boolean isRed) {
+    return reefScoringPoses[isRed ? kRed : kBlue][level.ordinal()][branch];
+  }
+
+  /**
+   * @param isRed If we are on the red alliance
+   * @return Center of our reef, in field coordinates
+   */
+  public static Translation2d getReefCenter(boolean isRed) {
+    return reefCenters[isRed ? kRed : kBlue];
+  }
+
+  /**
+   * Finds the reef face the robot is in front of.
+   *
+   * @param fieldPose Robot pose in field coordinates
+   * @param isRed     If we are on the red alliance
+   * @return Reef face, see {@link frc.team3602.robot.Constants.FieldConstants#kBlueReefTagIds}
+   */
+  public static int getNearestReefFace(Pose2d fieldPose, boolean isRed) {
+    int alliance = isRed ? kRed : kBlue;
+    double angle = Math.atan2(fieldPose.getY() - reefCenters[alliance].getY(),
+        fieldPose.getX() - reefCenters[alliance].getX());
+    return sectorFaces[alliance][getSector(angle)];
+  }
+
+  /**
+   * @param fieldPose Robot pose in field coordinates
+   * @param side      Which branch on the nearest face, from the robot's point
+   *                  of view
+   * @param isRed     If we are on the red alliance
+   * @return Index of the branch, see {@link #getReefBranchIndex}
+   */
+  public static int getNearestReefBranch(Pose2d fieldPose, Direction side, boolean isRed) {
+    return getReefBranchIndex(getNearestReefFace(fieldPose, isRed), side);
+  }
+
+  /**
+   * Finds the branch on the reef face closest to the robot.
+   *
+   * @param fieldPose Robot pose in field coordinates
+   * @param side      Which branch on that face, from the robot's point of view
+   * @param isRed     If we are on the red alliance
+   * @return Scoring pose in field coordinates
+   */
+  public static Pose2d getNearestReefBranchPose(Pose2d fieldPose, Direction side, boolean isRed) {
+    return reefBranchPoses[isRed ? kRed : kBlue][getNearestReefBranch(fieldPose, side, isRed)];
+  }
+
+  /**
+   * @param fieldPose Robot pose in field coordinates
+   * @param side      Which branch on the nearest face, from the robot's point
+   *                  of view
+   * @param level     Level we're scoring on
+   * @param isRed     If we are on the red alliance
+   * @return Scoring pose in field coordinates
+   */
+  public static Pose2d getNearestReefScoringPose(Pose2d fieldPose, Direction side, ReefLevel level,
+      boolean isRed) {
+    return getReefScoringPose(getNearestReefBranch(fieldPose, side, isRed), level, isRed);
+  }
+
+  /**
+   * @param station Which coral station
+   * @param isRed   If we are on the red alliance
+   * @return Pose to be at to take coral from that station, in field coordinates
+   */
+  public static Pose2d getCoralStationPose(CoralStation station, boolean isRed) {
+    return coralStationPoses[isRed ? kRed : kBlue][station.ordinal()];
+  }
+
+  /**
+   * @param isRed If we are on the red alliance
+   * @return Pose to be at to score in our processor, in field coordinates
+   */
+  public static Pose2d getProcessorPose(boolean isRed) {
+    return processorPoses[isRed ? kRed : kBlue];
+  }
+
+  /**
+   * Flips an X coordinate to the other alliance without building a pose, for
+   * lookups into tables that are stored for the blue side.
+   *
+   * @param x Field X in meters
+   * @return The same spot's X on the other side
+   */
+  public static double flipX(double x) {
+    return FlippingUtil.fieldSizeX - x;
+  }
+
+  /**
+   * @param y Field Y in meters
+   * @return The same spot's Y on the other side
+   */
+  public static double flipY(double y) {
+    return (FlippingUtil.symmetryType == FieldSymmetry.kRotational) ? FlippingUtil.fieldSizeY - y : y;
+  }
+
+  private static Pose2d getTagPose(int tagId) {
+    return kFieldLayout.getTagPose(tagId).orElseThrow().toPose2d();
+  }
+
+  private static int getSector(double angle) {
+    return MathUtil.clamp((int) ((angle + Math.PI) / (2.0 * Math.PI) * kSectorCount), 0, kSectorCount - 1);
+  }
+
+  /* Gives each sector the face whose center is closest in angle to its middle */
+  private static void buildSectors(int alliance) {
+    Translation2d center = reefCenters[alliance];
+    double[] faceAngles = new double[kReefFaceCount];
+    for (int face = 0; face < kReefFaceCount; ++face) {
+      // The branches on a face straddle its center
+      Translation2d faceCenter = reefBranchPoses[alliance][getReefBranchIndex(face, Direction.Left)].getTranslation()
+          .interpolate(reefBranchPoses[alliance][getReefBranchIndex(face, Direction.Right)].getTranslation(), 0.5);
+      faceAngles[face] = faceCenter.minus(center).getAngle().getRadians();
+    }
+
+    for (int sector = 0; sector < kSectorCount; ++sector) {
+      double angle = -Math.PI + (sector + 0.5) * (2.0 * Math.PI / kSectorCount);
+      int nearestFace = 0;
+      double nearestDifference = Double.POSITIVE_INFINITY;
+      for (int face = 0; face < kReefFaceCount; ++face) {
+        double difference = Math.abs(MathUtil.angleModulus(angle - faceAngles[face]));
+        if (difference < nearestDifference) {
+          nearestDifference = difference;
+          nearestFace = face;
+        }
+      }
+      sectorFaces[alliance][sector] = nearestFace;
+    }
+  }
+}
@@ -0,0 +1,15 @@
+/*
+ * Copyright (C) 2025 Team 3602 All rights reserved. This work is
+ * licensed under the terms of the MIT license which can be found
+ * in the root directory of this project.
+ */
+
+package frc.team3602.robot.field;
+
+/** Reef scoring levels, L1 is the trough. */
+public enum ReefLevel {
+  L1,
+  L2,
+  L3,
+  L4;
+}
@@ -201,7 +201,8 @@ public class TunerConstants {
      */
     public static DrivetrainSubsystem createDrivetrain() {
         return new DrivetrainSubsystem(
-            DrivetrainConstants, FrontLeft, FrontRight, BackLeft, BackRight
+            DrivetrainConstants, frc.team3602.robot.Constants.DrivetrainConstants.kOdometryFrequencyHz,
+            FrontLeft, FrontRight, BackLeft, BackRight
         );
     }
 
@@ -0,0 +1,259 @@
+/*
+ * Copyright (C) 2025 Team 3602 All rights reserved. This work is
+ * licensed under the terms of the MIT license which can be found
+ * in the root directory of this project.
+ */
+
+package frc.team3602.robot.logging;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import edu.wpi.first.util.datalog.DataLog;
+import edu.wpi.first.util.datalog.DataLogReader;
+import edu.wpi.first.util.datalog.DataLogRecord;
+import edu.wpi.first.util.datalog.DoubleLogEntry;
+import edu.wpi.first.util.datalog.RawLogEntry;
+
+/**
+ * Logs what every subsystem reads each loop, and feeds it back in replay.
+ * <p>
+ * Subsystems only see the robot through an IO layer. Each loop they read it
+ * into their {@link LoggableInputs} and call {@link LoggedInputs#process()},
+ * which writes the inputs to the log as a struct. Everything they do after
+ * that only depends on those inputs, and every value they send to the
+ * hardware is also given to a {@link LoggedOutput}, once per loop.
+ * <p>
+ * In replay the subsystems get an IO that does nothing and
+ * {@link LoggedInputs#process()} swaps in the inputs from the next loop of a
+ * match log instead. The same code then has to come up with the same
+ * outputs, each one is checked against the match log bit for bit. Inputs
+ * that are only logged, like the drivetrain's, aren't replayed. See
+ * {@link frc.team3602.robot.ReplayRunner}.
+ * <p>
+ * Subsystems make their handles when they're built, before we know if we're
+ * logging, so nothing is written until {@link #start} or {@link #startReplay}.
+ * Only the main thread may use any of this.
+ */
+public final class InputLog {
+  private static final String kInputsPrefix = "Inputs/";
+  private static final String kOutputsPrefix = "Outputs/";
+
+  private static final List<LoggedInputs> allInputs = new ArrayList<>();
+  private static final List<LoggedOutput> allOutputs = new ArrayList<>();
+
+  private static DataLog log = null;
+  /* Records from the log being replayed by entry name, null unless replaying */
+  private static Map<String, List<byte[]>> replayRecords = null;
+
+  private static long mismatchCount = 0;
+  private static String firstMismatch = null;
+
+  private InputLog() {
+  }
+
+  /** One subsystem's inputs, see {@link InputLog#inputs}. */
+  public static final class LoggedInputs {
+    private final String name;
+    private final LoggableInputs values;
+    private final ByteBuffer buffer;
+    private RawLogEntry entry = null;
+    private List<byte[]> records = null;
+    private int next = 0;
+
+    private LoggedInputs(String name, LoggableInputs values) {
+      this.name = kInputsPrefix + name;
+      this.values = values;
+      this.buffer = ByteBuffer.allocate(values.getSize()).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Logs this loop's inputs. In replay they're replaced with the next loop's
+     * from the match log first, so the log we write has the same inputs.
+     */
+    public void process() {
+      if (records != null && next < records.size()) {
+        values.unpack(ByteBuffer.wrap(records.get(next++)).order(ByteOrder.LITTLE_ENDIAN));
+      }
+      if (entry != null) {
+        buffer.clear();
+        values.pack(buffer);
+        entry.append(buffer.array());
+      }
+    }
+
+    private void open() {
+      if (log != null && entry == null) {
+        String type = "struct:" + values.getTypeName();
+        if (!log.hasSchema(type)) {
+          log.addSchema(type, "structschema", values.getSchema());
+        }
+        entry = new RawLogEntry(log, name, "", type);
+      }
+      if (replayRecords != null) {
+        records = replayRecords.getOrDefault(name, List.of());
+        next = 0;
+      }
+    }
+  }
+
+  /** One value a subsystem sends to the hardware, see {@link InputLog#output}. */
+  public static final class LoggedOutput {
+    private final String name;
+    private DoubleLogEntry entry = null;
+    private List<byte[]> records = null;
+    private int next = 0;
+
+    private LoggedOutput(String name) {
+      this.name = kOutputsPrefix + name;
+    }
+
+    /**
+     * Logs this loop's value. In replay it's also checked against the value
+     * from the same loop of the match log.
+     *
+     * @param value What was sent, NaN if nothing was this loop
+     */
+    public void record(double value) {
+      if (records != null && next < records.size()) {
+        double logged = ByteBuffer.wrap(records.get(next)).order(ByteOrder.LITTLE_ENDIAN).getDouble();
+        if (Double.doubleToRawLongBits(logged) != Double.doubleToRawLongBits(value)) {
+          if (mismatchCount++ == 0) {
+            firstMismatch = String.format("%s in loop %d was %s, the match log has %s", name, next, value, logged);
+          }
+        }
+        ++next;
+      }
+      if (entry != null) {
+        entry.append(value);
+      }
+    }
+
+    private void open() {
+      if (log != null && entry == null) {
+        entry = new DoubleLogEntry(log, name);
+      }
+      if (replayRecords != null) {
+        records = replayRecords.getOrDefault(name, List.of());
+        next = 0;
+      }
+    }
+  }
+
+  /**
+   * @param name   Subsystem name, logged under {@code Inputs/<name>}
+   * @param values Inputs the subsystem reads its IO into, reused every loop
+   * @return Handle to process the inputs with each loop
+   */
+  public static LoggedInputs inputs(String name, LoggableInputs values) {
+    var inputs = new LoggedInputs(name, values);
+    allInputs.add(inputs);
+    inputs.open();
+    return inputs;
+  }
+
+  /**
+   * @param name Output name, logged under {@code Outputs/<name>}
+   * @return Handle to record the output with each loop
+   */
+  public static LoggedOutput output(String name) {
+    var output = new LoggedOutput(name);
+    allOutputs.add(output);
+    output.open();
+    return output;
+  }
+
+  /**
+   * Starts logging every subsystem's inputs and outputs.
+   *
+   * @param dataLog Log to write to, usually the DataLogManager's
+   */
+  public static void start(DataLog dataLog) {
+    log = dataLog;
+    openAll();
+  }
+
+  /**
+   * Reads a match log to replay. From here on inputs come from it, and the
+   * inputs and recomputed outputs are written to another log.
+   *
+   * @param matchLogPath Log written by the robot with {@link #start}
+   * @param outputLog    Log for the replay
+   * @throws IOException If the match log can't be read
+   */
+  public static void startReplay(String matchLogPath, DataLog outputLog) throws IOException {
+    var reader = new DataLogReader(matchLogPath);
+    if (!reader.isValid()) {
+      throw new IOException(matchLogPath + " isn't a WPILib data log");
+    }
+
+    Map<Integer, String> names = new HashMap<>();
+    Map<String, List<byte[]>> records = new HashMap<>();
+    for (DataLogRecord record : reader) {
+      if (record.isStart()) {
+        var start = record.getStartData();
+        if (start.name.startsWith(kInputsPrefix) || start.name.startsWith(kOutputsPrefix)) {
+          names.put(start.entry, start.name);
+          records.putIfAbsent(start.name, new ArrayList<>());
+        }
+      } else if (record.isFinish()) {
+        names.remove(record.getFinishEntry());
+      } else if (!record.isControl()) {
+        String name = names.get(record.getEntry());
+        if (name != null) {
+          records.get(name).add(record.getRaw());
+        }
+      }
+    }
+
+    replayRecords = records;
+    mismatchCount = 0;
+    firstMismatch = null;
+    log = outputLog;
+    openAll();
+  }
+
+  /**
+   * @return How many loops every subsystem built so far has inputs for in
+   *         the match log, 0 if we aren't replaying
+   */
+  public static int getReplayLoopCount() {
+    if (replayRecords == null || allInputs.isEmpty()) {
+      return 0;
+    }
+
+    int loops = Integer.MAX_VALUE;
+    for (LoggedInputs inputs : allInputs) {
+      loops = Math.min(loops, inputs.records.size());
+    }
+    return loops;
+  }
+
+  /**
+   * @return Outputs in replay that didn't match the match log
+   */
+  public static long getMismatchCount() {
+    return mismatchCount;
+  }
+
+  /**
+   * @return The first output in replay that didn't match, null if none
+   */
+  public static String getFirstMismatch() {
+    return firstMismatch;
+  }
+
+  private static void openAll() {
+    for (LoggedInputs inputs : allInputs) {
+      inputs.open();
+    }
+    for (LoggedOutput output : allOutputs) {
+      output.open();
+    }
+  }
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright (C) 2025 Team 3602 All rights reserved. This work is
+ * licensed under the terms of the MIT license which can be found
+ * in the root directory of this project.
+ */
+
+package frc.team3602.robot.logging;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Inputs a subsystem reads from its IO each loop, packed as a WPILib struct so
+ * AdvantageScope can show them and {@link InputLog} can replay them.
+ */
+public interface LoggableInputs {
+  /**
+   * @return Struct type name, shows up in the log as {@code struct:<name>}
+   */
+  String getTypeName();
+
+  /**
+   * @return Struct schema, fields in the order {@link #pack} writes them
+   */
+  String getSchema();
+
+  /**
+   * @return Packed size in bytes
+   */
+  int getSize();
+
+  /**
+   * @param bb Little endian buffer with at least {@link #getSize()} bytes left
+   */
+  void pack(ByteBuffer bb);
+
+  /**
+   * Overwrites every field with what {@link #pack} wrote.
+   *
+   * @param bb Little endian buffer with at least {@link #getSize()} bytes left
+   */
+  void unpack(ByteBuffer bb);
+}
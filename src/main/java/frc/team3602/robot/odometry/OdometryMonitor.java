@@ -0,0 +1,186 @@
+/*
+ * Copyright (C) 2025 Team 3602 All rights reserved. This work is
+ * licensed under the terms of the MIT license which can be found
+ * in the root directory of this project.
+ */
+
+package frc.team3602.robot.odometry;
+
+import java.util.Arrays;
+
+import com.ctre.phoenix6.CANBus;
+import com.ctre.phoenix6.SignalLogger;
+import com.ctre.phoenix6.swerve.SwerveDrivetrain.SwerveDriveState;
+
+import edu.wpi.first.networktables.DoublePublisher;
+import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.Timer;
+
+import frc.team3602.robot.LoopGovernor;
+import frc.team3602.robot.LoopGovernor.Work;
+
+/**
+ * Measures how well the odometry thread keeps up with the rate we asked for.
+ * <p>
+ * Every odometry update drops its period into a histogram with 0.25 ms
+ * buckets. Once a second the main loop turns the histogram into percentiles,
+ * jitter and the failed DAQ rate, publishes them and starts over. If the
+ * thread can't hold the requested rate we warn once, along with how busy the
+ * CAN bus is, so we know to turn the rate down.
+ */
+public class OdometryMonitor {
+  private static final double kBucketSeconds = 0.00025;
+  private static final int kBucketCount = 200; // up to 50 ms
+  private static final double kReportPeriod = 1.0;
+
+  /* Below this fraction of the requested rate, or above this many failed DAQs, we can't keep up */
+  private static final double kMinRateFraction = 0.9;
+  private static final double kMaxFailedDaqFraction = 0.05;
+
+  private final double targetPeriod;
+  private final CANBus canBus;
+
+  /* Written by the odometry thread, read and cleared by the main loop, guarded by this */
+  private final long[] histogram = new long[kBucketCount + 1];
+  private long samples = 0;
+  private double periodSum = 0.0;
+  private double periodSquaredSum = 0.0;
+  private double worstJitter = 0.0;
+  private double lastTimestamp = Double.NaN;
+  private int lastSuccessfulDaqs = -1;
+  private int lastFailedDaqs = -1;
+  private long successfulDaqs = 0;
+  private long failedDaqs = 0;
+
+  private double lastReportTime = Timer.getFPGATimestamp();
+  private boolean warned = false;
+
+  private final NetworkTable table = NetworkTableInstance.getDefault().getTable("Odometry");
+  private final DoublePublisher frequencyPub = table.getDoubleTopic("Frequency").publish();
+  private final DoublePublisher p50Pub = table.getDoubleTopic("PeriodP50").publish();
+  private final DoublePublisher p99Pub = table.getDoubleTopic("PeriodP99").publish();
+  private final DoublePublisher maxPub = table.getDoubleTopic("PeriodMax").publish();
+  private final DoublePublisher jitterPub = table.getDoubleTopic("JitterStdDev").publish();
+  private final DoublePublisher worstJitterPub = table.getDoubleTopic("JitterMax").publish();
+  private final DoublePublisher failedDaqPub = table.getDoubleTopic("FailedDaqFraction").publish();
+  private final DoublePublisher busUtilizationPub = table.getDoubleTopic("BusUtilization").publish();
+
+  /**
+   * @param targetFrequencyHz Odometry rate we asked the drivetrain for
+   * @param canBus            Bus the drivetrain is on
+   */
+  public OdometryMonitor(double targetFrequencyHz, CANBus canBus) {
+    this.targetPeriod = 1.0 / targetFrequencyHz;
+    this.canBus = canBus;
+    table.getDoubleTopic("TargetFrequency").publish().set(targetFrequencyHz);
+  }
+
+  /**
+   * Records one odometry update. Only call this from the odometry thread.
+   *
+   * @param state Drive state the odometry thread just produced
+   */
+  public synchronized void update(SwerveDriveState state) {
+    if (lastSuccessfulDaqs >= 0) {
+      successfulDaqs += state.SuccessfulDaqs - lastSuccessfulDaqs;
+      failedDaqs += state.FailedDaqs - lastFailedDaqs;
+    }
+    lastSuccessfulDaqs = state.SuccessfulDaqs;
+    lastFailedDaqs = state.FailedDaqs;
+
+    double period = state.Timestamp - lastTimestamp;
+    lastTimestamp = state.Timestamp;
+    if (!(period > 0.0)) {
+      return;
+    }
+
+    ++histogram[Math.min((int) (period / kBucketSeconds), kBucketCount)];
+    ++samples;
+    periodSum += period;
+    periodSquaredSum += period * period;
+    worstJitter = Math.max(worstJitter, Math.abs(period - targetPeriod));
+  }
+
+  /** Publishes the last second of measurements. Call from the main loop. */
+  public void periodic() {
+    double now = Timer.getFPGATimestamp();
+    if (now - lastReportTime < kReportPeriod) {
+      return;
+    }
+    lastReportTime = now;
+
+    long count;
+    double mean;
+    double stdDev;
+    double p50;
+    double p99;
+    double max;
+    double jitter;
+    double failedFraction;
+    synchronized (this) {
+      count = samples;
+      if (count == 0) {
+        return;
+      }
+      mean = periodSum / count;
+      stdDev = Math.sqrt(Math.max(periodSquaredSum / count - mean * mean, 0.0));
+      p50 = percentile(0.50);
+      p99 = percentile(0.99);
+      max = percentile(1.0);
+      jitter = worstJitter;
+      long daqs = successfulDaqs + failedDaqs;
+      failedFraction = (daqs > 0) ? (double) failedDaqs / daqs : 0.0;
+
+      Arrays.fill(histogram, 0);
+      samples = 0;
+      periodSum = 0.0;
+      periodSquaredSum = 0.0;
+      worstJitter = 0.0;
+      successfulDaqs = 0;
+      failedDaqs = 0;
+    }
+
+    double frequency = 1.0 / mean;
+    double busUtilization = canBus.getStatus().BusUtilization;
+
+    frequencyPub.set(frequency);
+    p50Pub.set(p50);
+    p99Pub.set(p99);
+    maxPub.set(max);
+    jitterPub.set(stdDev);
+    worstJitterPub.set(jitter);
+    failedDaqPub.set(failedFraction);
+    busUtilizationPub.set(busUtilization);
+
+    if (LoopGovernor.isEnabled(Work.DebugLogging)) {
+      SignalLogger.writeDouble("Odometry/Frequency", frequency, "Hz");
+      SignalLogger.writeDouble("Odometry/PeriodP99", p99, "seconds");
+      SignalLogger.writeDouble("Odometry/JitterStdDev", stdDev, "seconds");
+      SignalLogger.writeDouble("Odometry/FailedDaqFraction", failedFraction);
+      SignalLogger.writeDouble("Odometry/BusUtilization", busUtilization);
+    }
+
+    boolean keepingUp = frequency >= kMinRateFraction / targetPeriod && failedFraction <= kMaxFailedDaqFraction;
+    if (!keepingUp && !warned) {
+      DriverStation.reportWarning(String.format(
+          "Odometry can't hold %.0f Hz: running at %.1f Hz, p99 period %.2f ms, %.1f%% failed DAQs, CAN bus %.0f%% busy",
+          1.0 / targetPeriod, frequency, p99 * 1000.0, failedFraction * 100.0, busUtilization * 100.0), false);
+    }
+    warned = !keepingUp;
+  }
+
+  /* Upper edge of the bucket the given fraction of samples fall under, must hold the lock */
+  private double percentile(double fraction) {
+    long threshold = (long) Math.ceil(fraction * samples);
+    long seen = 0;
+    for (int bucket = 0; bucket <= kBucketCount; ++bucket) {
+      seen += histogram[bucket];
+      if (seen >= threshold && histogram[bucket] > 0) {
+        return (bucket + 1) * kBucketSeconds;
+      }
+    }
+    return (kBucketCount + 1) * kBucketSeconds;
+  }
+}
@@ -0,0 +1,198 @@
+/*
+ * Copyright (C) 2025 Team 3602 All rights reserved. This work is
+ * licensed under the terms of the MIT license which can be found
+ * in the root directory of this project.
+ */
+
+package frc.team3602.robot.odometry;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.ctre.phoenix6.BaseStatusSignal;
+import com.ctre.phoenix6.SignalLogger;
+import com.ctre.phoenix6.StatusSignal;
+import com.ctre.phoenix6.Utils;
+import com.ctre.phoenix6.hardware.Pigeon2;
+import com.ctre.phoenix6.swerve.SwerveDrivetrain.SwerveDriveState;
+
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.units.measure.LinearAcceleration;
+
+import frc.team3602.robot.LoopGovernor;
+import frc.team3602.robot.LoopGovernor.Work;
+
+import static frc.team3602.robot.Constants.DrivetrainConstants.*;
+
+/**
+ * Watches every odometry update for the wheels slipping or the robot getting
+ * hit.
+ * <p>
+ * The modules are fit to one rigid body motion. A module that disagrees with
+ * that fit is slipping, and a fit that turns at a different rate than the
+ * Pigeon says we are turning means the whole robot is sliding. A collision
+ * shows up as the Pigeon's accelerometer reading something very different from
+ * what the wheels say we are doing.
+ * <p>
+ * {@link #update} runs on the odometry thread, everything else is safe to call
+ * from the main loop.
+ */
+public class SlipDetector {
+  private static final double kGravity = 9.80665;
+  /* Smoothing on both accelerations, 0 is none and 1 never moves */
+  private static final double kAccelFilter = 0.6;
+
+  private final double[] moduleX;
+  private final double[] moduleY;
+  private final double sumRadiusSquared;
+
+  private final StatusSignal<LinearAcceleration> accelX;
+  private final StatusSignal<LinearAcceleration> accelY;
+
+  /* Only touched by the odometry thread */
+  private double lastTimestamp = Double.NaN;
+  private double lastHeading;
+  private double lastVx;
+  private double lastVy;
+  private double wheelAccelX;
+  private double wheelAccelY;
+  private double imuAccelX;
+  private double imuAccelY;
+  private boolean wasSlipping = false;
+  private boolean wasColliding = false;
+
+  private final AtomicInteger slipCount = new AtomicInteger();
+  private final AtomicInteger collisionCount = new AtomicInteger();
+  private volatile double lastEventTime = Double.NEGATIVE_INFINITY;
+
+  /**
+   * @param moduleLocations Where each module is relative to the center of the
+   *                        robot, in the same order as the drive state
+   * @param pigeon          Drivetrain gyro, mounted square with the robot
+   */
+  public SlipDetector(Translation2d[] moduleLocations, Pigeon2 pigeon) {
+    moduleX = new double[moduleLocations.length];
+    moduleY = new double[moduleLocations.length];
+    double radiusSquared = 0.0;
+    for (int i = 0; i < moduleLocations.length; ++i) {
+      moduleX[i] = moduleLocations[i].getX();
+      moduleY[i] = moduleLocations[i].getY();
+      radiusSquared += moduleX[i] * moduleX[i] + moduleY[i] * moduleY[i];
+    }
+    sumRadiusSquared = radiusSquared;
+
+    accelX = pigeon.getAccelerationX(false);
+    accelY = pigeon.getAccelerationY(false);
+    BaseStatusSignal.setUpdateFrequencyForAll(100, accelX, accelY);
+  }
+
+  /**
+   * Checks one odometry update. Only call this from the odometry thread.
+   *
+   * @param state Drive state the odometry thread just produced
+   */
+  public void update(SwerveDriveState state) {
+    double heading = state.RawHeading.getRadians();
+    double dt = state.Timestamp - lastTimestamp;
+
+    // Rigid body fit of the module velocities, the modules are centered on the
+    // robot so translation is just the average
+    double vx = 0.0;
+    double vy = 0.0;
+    double omegaSum = 0.0;
+    int count = moduleX.length;
+    for (int i = 0; i < count; ++i) {
+      double speed = state.ModuleStates[i].speedMetersPerSecond;
+      double moduleVx = speed * state.ModuleStates[i].angle.getCos();
+      double moduleVy = speed * state.ModuleStates[i].angle.getSin();
+      vx += moduleVx;
+      vy += moduleVy;
+      omegaSum += moduleX[i] * moduleVy - moduleY[i] * moduleVx;
+    }
+    vx /= count;
+    vy /= count;
+    double omega = omegaSum / sumRadiusSquared;
+
+    // Skip the first update and anything after the odometry thread stalled
+    if (!(dt > 0.0 && dt < 0.1)) {
+      lastTimestamp = state.Timestamp;
+      lastHeading = heading;
+      lastVx = vx;
+      lastVy = vy;
+      return;
+    }
+
+    double worstModuleError = 0.0;
+    for (int i = 0; i < count; ++i) {
+      double speed = state.ModuleStates[i].speedMetersPerSecond;
+      double errorX = speed * state.ModuleStates[i].angle.getCos() - (vx - omega * moduleY[i]);
+      double errorY = speed * state.ModuleStates[i].angle.getSin() - (vy + omega * moduleX[i]);
+      worstModuleError = Math.max(worstModuleError, Math.hypot(errorX, errorY));
+    }
+    double gyroOmega = MathUtil.angleModulus(heading - lastHeading) / dt;
+    double yawRateError = Math.abs(omega - gyroOmega);
+
+    boolean slipping = worstModuleError > kSlipVelocityErrorMetersPerSec
+        || yawRateError > kSlipYawRateErrorRadPerSec;
+
+    // What the wheels say our acceleration is in the robot frame, including
+    // the centripetal part the accelerometer also feels
+    wheelAccelX = kAccelFilter * wheelAccelX + (1.0 - kAccelFilter) * ((vx - lastVx) / dt - gyroOmega * vy);
+    wheelAccelY = kAccelFilter * wheelAccelY + (1.0 - kAccelFilter) * ((vy - lastVy) / dt + gyroOmega * vx);
+
+    // The sim Pigeon doesn't model the accelerometer
+    boolean colliding = false;
+    if (!Utils.isSimulation()) {
+      BaseStatusSignal.refreshAll(accelX, accelY);
+      imuAccelX = kAccelFilter * imuAccelX + (1.0 - kAccelFilter) * accelX.getValueAsDouble() * kGravity;
+      imuAccelY = kAccelFilter * imuAccelY + (1.0 - kAccelFilter) * accelY.getValueAsDouble() * kGravity;
+      colliding = Math.hypot(imuAccelX - wheelAccelX, imuAccelY - wheelAccelY) > kCollisionAccelErrorMetersPerSecSq;
+    }
+
+    if (slipping && !wasSlipping) {
+      SignalLogger.writeInteger("SlipDetector/SlipCount", slipCount.incrementAndGet());
+    }
+    if (colliding && !wasColliding) {
+      SignalLogger.writeInteger("SlipDetector/CollisionCount", collisionCount.incrementAndGet());
+    }
+    if (slipping || colliding) {
+      lastEventTime = state.Timestamp;
+    }
+    wasSlipping = slipping;
+    wasColliding = colliding;
+
+    if (LoopGovernor.isEnabled(Work.DebugLogging)) {
+      SignalLogger.writeBoolean("SlipDetector/Slipping", slipping);
+      SignalLogger.writeBoolean("SlipDetector/Colliding", colliding);
+      SignalLogger.writeDouble("SlipDetector/ModuleError", worstModuleError, "m/s");
+      SignalLogger.writeDouble("SlipDetector/YawRateError", yawRateError, "rad/s");
+    }
+
+    lastTimestamp = state.Timestamp;
+    lastHeading = heading;
+    lastVx = vx;
+    lastVy = vy;
+  }
+
+  /**
+   * @return If the wheels slipped or we got hit recently enough that odometry
+   *         shouldn't be trusted
+   */
+  public boolean isTractionLost() {
+    return Utils.getCurrentTimeSeconds() - lastEventTime < kSlipHoldSeconds;
+  }
+
+  /**
+   * @return How many times the wheels have started slipping since boot
+   */
+  public int getSlipCount() {
+    return slipCount.get();
+  }
+
+  /**
+   * @return How many collisions we have had since boot
+   */
+  public int getCollisionCount() {
+    return collisionCount.get();
+  }
+}
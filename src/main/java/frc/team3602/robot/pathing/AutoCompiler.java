@@ -0,0 +1,139 @@
+/*
+ * Copyright (C) 2025 Team 3602 All rights reserved. This work is
+ * licensed under the terms of the MIT license which can be found
+ * in the root directory of this project.
+ */
+
+package frc.team3602.robot.pathing;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import com.pathplanner.lib.auto.NamedCommands;
+import com.pathplanner.lib.events.EventMarker;
+import com.pathplanner.lib.path.PathPlannerPath;
+
+import edu.wpi.first.wpilibj.DataLogManager;
+import edu.wpi.first.wpilibj2.command.Subsystem;
+
+import frc.team3602.robot.Constants.AutonConstants;
+import frc.team3602.robot.pathing.AutoLoader.AutoRoutine;
+import frc.team3602.robot.pathing.AutoLoader.AutoStep;
+import frc.team3602.robot.pathing.AutoLoader.StepType;
+
+/**
+ * Rewrites autos at boot so mechanism prep overlaps the end of the path
+ * before it.
+ * <p>
+ * The autos are drawn as path, then named commands, one after another, so the
+ * elevator sits still the whole drive and only starts moving once the robot
+ * has stopped. In every sequential group, the named commands right after a
+ * path that only use the mechanisms are pulled into a {@link StepType#Hoisted}
+ * step with that path. They start once the robot is near the end of the path
+ * and slow enough to lift safely, see {@link AutoLoader#buildStep}.
+ * <p>
+ * A command is only hoisted if it needs nothing but the mechanisms, so nothing
+ * the path or its event markers use, and the path has to end slow enough that
+ * the speed check is sure to pass. Commands that need nothing at all, like the
+ * condition waits, only come along when there's more prep after them.
+ * Anything else stops the hoisting there and runs after the path like before.
+ */
+final class AutoCompiler {
+  private final Function<String, PathPlannerPath> paths;
+  private final Subsystem drivetrainSubsys;
+  private final Set<Subsystem> mechanisms;
+
+  /**
+   * @param paths            Loaded paths by name
+   * @param drivetrainSubsys Drivetrain the paths drive
+   * @param mechanisms       Subsystems whose commands are safe to start while
+   *                         driving slowly
+   */
+  AutoCompiler(Function<String, PathPlannerPath> paths, Subsystem drivetrainSubsys, Set<Subsystem> mechanisms) {
+    this.paths = paths;
+    this.drivetrainSubsys = drivetrainSubsys;
+    this.mechanisms = mechanisms;
+  }
+
+  /**
+   * @param auto Auto as drawn
+   * @return The same auto with mechanism prep hoisted, logging what moved
+   */
+  AutoRoutine compile(AutoRoutine auto) {
+    List<String> report = new ArrayList<>();
+    AutoStep command = compileStep(auto.command(), report);
+    for (String line : report) {
+      DataLogManager.log(auto.name() + ": " + line);
+    }
+    return new AutoRoutine(auto.name(), auto.resetOdom(), command);
+  }
+
+  private AutoStep compileStep(AutoStep step, List<String> report) {
+    if (step.children().isEmpty()) {
+      return step;
+    }
+
+    List<AutoStep> children = new ArrayList<>();
+    for (AutoStep child : step.children()) {
+      children.add(compileStep(child, report));
+    }
+    if (step.type() != StepType.Sequential) {
+      return new AutoStep(step.type(), step.name(), step.waitTime(), children);
+    }
+
+    List<AutoStep> compiled = new ArrayList<>();
+    int i = 0;
+    while (i < children.size()) {
+      AutoStep child = children.get(i++);
+      int hoisted = (child.type() == StepType.Path) ? countHoistable(child, children, i) : 0;
+      if (hoisted == 0) {
+        compiled.add(child);
+        continue;
+      }
+
+      List<AutoStep> group = new ArrayList<>(children.subList(i - 1, i + hoisted));
+      compiled.add(new AutoStep(StepType.Hoisted, child.name(), 0.0, group));
+      report.add("starting " + group.subList(1, group.size()).stream().map(AutoStep::name)
+          .collect(Collectors.joining(", ")) + " before the end of " + child.name());
+      i += hoisted;
+    }
+    return new AutoStep(step.type(), step.name(), step.waitTime(), compiled);
+  }
+
+  /* How many of the steps from start on can run during the end of the path */
+  private int countHoistable(AutoStep pathStep, List<AutoStep> steps, int start) {
+    PathPlannerPath path = paths.apply(pathStep.name());
+    if (path == null || path.getGoalEndState().velocityMPS() > AutonConstants.kHoistMaxSpeedMetersPerSecond) {
+      return 0;
+    }
+
+    Set<Subsystem> pathRequirements = new HashSet<>(Set.of(drivetrainSubsys));
+    for (EventMarker marker : path.getEventMarkers()) {
+      pathRequirements.addAll(marker.command().getRequirements());
+    }
+
+    int count = 0;
+    int hoistable = 0;
+    for (int i = start; i < steps.size(); ++i) {
+      AutoStep step = steps.get(i);
+      if (step.type() != StepType.Named || !NamedCommands.hasCommand(step.name())) {
+        break;
+      }
+      Set<Subsystem> requirements = NamedCommands.getCommand(step.name()).getRequirements();
+      if (!mechanisms.containsAll(requirements) || requirements.stream().anyMatch(pathRequirements::contains)) {
+        break;
+      }
+
+      ++count;
+      // Don't drag trailing waits along when there's no prep after them
+      if (!requirements.isEmpty()) {
+        hoistable = count;
+      }
+    }
+    return hoistable;
+  }
+}
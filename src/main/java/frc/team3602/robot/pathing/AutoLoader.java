@@ -0,0 +1,407 @@
+/*
+ * Copyright (C) 2025 Team 3602 All rights reserved. This work is
+ * licensed under the terms of the MIT license which can be found
+ * in the root directory of this project.
+ */
+
+package frc.team3602.robot.pathing;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pathplanner.lib.auto.AutoBuilder;
+import com.pathplanner.lib.auto.NamedCommands;
+import com.pathplanner.lib.config.RobotConfig;
+import com.pathplanner.lib.path.PathPlannerPath;
+import com.pathplanner.lib.util.FlippingUtil;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.wpilibj.DataLogManager;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.Filesystem;
+import edu.wpi.first.wpilibj.smartdashboard.SendableChooser;
+import edu.wpi.first.wpilibj2.command.Command;
+import edu.wpi.first.wpilibj2.command.Commands;
+import edu.wpi.first.wpilibj2.command.Subsystem;
+
+import frc.team3602.robot.Constants.AutonConstants;
+import frc.team3602.robot.subsystems.DrivetrainSubsystem;
+
+/**
+ * Loads every PathPlanner path and auto in the deploy directory at boot.
+ * <p>
+ * Paths have their trajectories generated on every core at once instead of one
+ * after another on the main thread. Parsing the .path files themselves is
+ * serialized, since PathPlanner caches them in a map that isn't thread safe,
+ * but it's the cheap part. Each path is loaded once and
+ * shared between all the autos that use it, so an auto that drives the same
+ * path five times doesn't parse it five times. The autos themselves are read
+ * into a small tree of {@link AutoStep}s and turned into commands on the main
+ * thread.
+ * <p>
+ * Nothing is cached on disk between boots. A path rebuilt with
+ * PathPlannerPath.fromPathPoints() has no ideal starting state, so it never
+ * has an ideal trajectory, and there's no public way to give a path one we
+ * saved. FollowPathCommand would then generate the trajectory when the auto
+ * starts, on the main thread, instead of here at boot on every core.
+ */
+public class AutoLoader {
+  private static final File kPathPlannerDirectory = new File(Filesystem.getDeployDirectory(), "pathplanner");
+
+  private static final int kBlue = 0;
+  private static final int kRed = 1;
+
+  /*
+   * fromPathFile puts every path it loads in PathPlanner's static cache, a
+   * plain HashMap, and registers it for hot reload the same way. Neither is
+   * safe to touch from more than one thread, so parsing goes one path at a
+   * time. Trajectory generation only touches its own path and stays parallel.
+   */
+  private static final Object kPathFileLock = new Object();
+
+  public enum StepType {
+    Sequential,
+    Parallel,
+    Race,
+    Deadline,
+    Path,
+    Named,
+    Wait,
+    /* A path with the steps after it started near its end, see AutoCompiler */
+    Hoisted;
+  }
+
+  /**
+   * One command in an auto, mirroring the command JSON in a .auto file.
+   *
+   * @param type     What kind of command this is
+   * @param name     Path name for paths and hoisted paths, command name for
+   *                 named commands
+   * @param waitTime Seconds to wait for waits
+   * @param children Commands in a group
+   */
+  public record AutoStep(StepType type, String name, double waitTime, List<AutoStep> children) {
+  }
+
+  /**
+   * @param name      Auto name, the file name without .auto
+   * @param resetOdom If the pose gets reset to the start of the first path
+   * @param command   Root command
+   */
+  public record AutoRoutine(String name, boolean resetOdom, AutoStep command) {
+  }
+
+  private final DrivetrainSubsystem drivetrainSubsys;
+  private final AutoProfiler profiler;
+  private final Map<String, PathPlannerPath> paths = new ConcurrentHashMap<>();
+  private final Map<String, AutoRoutine> autos = new TreeMap<>();
+
+  public AutoLoader(DrivetrainSubsystem drivetrainSubsys, AutoProfiler profiler) {
+    this.drivetrainSubsys = drivetrainSubsys;
+    this.profiler = profiler;
+  }
+
+  /**
+   * Parses every path and auto, generating each path's trajectory in parallel
+   * as it goes, and logs how long each file took.
+   */
+  public void loadAll() {
+    long startTime = System.nanoTime();
+
+    RobotConfig config = null;
+    try {
+      config = RobotConfig.fromGUISettings();
+    } catch (Exception e) {
+      DriverStation.reportError("Couldn't load the robot config, trajectories will be generated on the fly: "
+          + e.getMessage(), e.getStackTrace());
+    }
+    final RobotConfig robotConfig = config;
+
+    List<Callable<String>> tasks = new ArrayList<>();
+    for (String name : listFiles("paths", ".path")) {
+      tasks.add(() -> {
+        long fileStart = System.nanoTime();
+        PathPlannerPath path;
+        synchronized (kPathFileLock) {
+          path = PathPlannerPath.fromPathFile(name);
+        }
+        if (robotConfig != null) {
+          path.getIdealTrajectory(robotConfig);
+        }
+        paths.put(name, path);
+        return formatTime(name + ".path", fileStart);
+      });
+    }
+
+    Map<String, AutoRoutine> loadedAutos = new ConcurrentHashMap<>();
+    for (String name : listFiles("autos", ".auto")) {
+      tasks.add(() -> {
+        long fileStart = System.nanoTime();
+        JsonNode json = new ObjectMapper().readTree(new File(kPathPlannerDirectory, "autos/" + name + ".auto"));
+        loadedAutos.put(name, new AutoRoutine(name, json.path("resetOdom").asBoolean(true),
+            parseStep(json.get("command"))));
+        return formatTime(name + ".auto", fileStart);
+      });
+    }
+
+    ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+    List<String> report = new ArrayList<>();
+    try {
+      for (Future<String> result : executor.invokeAll(tasks)) {
+        try {
+          report.add(result.get());
+        } catch (ExecutionException e) {
+          // The wrapper's trace only points here, the cause says where it broke
+          Throwable cause = e.getCause();
+          DriverStation.reportError("Failed to load a PathPlanner file: " + cause, cause.getStackTrace());
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      executor.shutdown();
+    }
+    autos.putAll(loadedAutos);
+
+    Collections.sort(report);
+    report.forEach(DataLogManager::log);
+    DataLogManager.log(formatTime("Loaded " + paths.size() + " paths and " + autos.size() + " autos", startTime));
+  }
+
+  /**
+   * Builds the auto chooser the same way AutoBuilder.buildAutoChooser() does,
+   * but from the paths we already loaded. Call after the named commands are
+   * registered and AutoBuilder is configured.
+   *
+   * @return Chooser with every auto and a default of doing nothing
+   */
+  public SendableChooser<Command> buildAutoChooser() {
+    var chooser = new SendableChooser<Command>();
+    chooser.setDefaultOption("None", Commands.none());
+    for (AutoRoutine auto : autos.values()) {
+      chooser.addOption(auto.name(), buildAuto(auto));
+    }
+
+    return chooser;
+  }
+
+  /**
+   * Lets mechanism prep in every auto start before the path ahead of it ends,
+   * see {@link AutoCompiler}. Call after the named commands are registered and
+   * before building any autos.
+   *
+   * @param mechanisms Subsystems that are safe to move while driving slowly
+   */
+  public void compileAutos(Set<Subsystem> mechanisms) {
+    var compiler = new AutoCompiler(paths::get, drivetrainSubsys, mechanisms);
+    autos.replaceAll((name, auto) -> compiler.compile(auto));
+  }
+
+  /**
+   * @return Every auto that loaded, sorted by name
+   */
+  public List<AutoRoutine> getAutos() {
+    return new ArrayList<>(autos.values());
+  }
+
+  /**
+   * @param name Path name, without .path
+   * @return The loaded path, or null if it didn't load
+   */
+  public PathPlannerPath getPath(String name) {
+    return paths.get(name);
+  }
+
+  /**
+   * Turns an auto into a command, resetting the pose first if the auto asks
+   * for it. Every step is profiled, see {@link AutoProfiler}.
+   *
+   * @param auto Loaded auto
+   * @return Command to run
+   */
+  public Command buildAuto(AutoRoutine auto) {
+    Command command = buildStep(auto.command());
+
+    Pose2d startingPose = getStartingPose(auto);
+    if (auto.resetOdom() && startingPose != null) {
+      // [alliance], flipped once here instead of when the auto starts
+      Pose2d[] start = { startingPose, FlippingUtil.flipFieldPose(startingPose) };
+      command = Commands.sequence(drivetrainSubsys.runOnce(
+          () -> drivetrainSubsys.resetPose(start[drivetrainSubsys.isRedAlliance() ? kRed : kBlue])), command);
+    }
+
+    return profiler.profileAuto(auto.name(), command).withName(auto.name());
+  }
+
+  /**
+   * @param auto Loaded auto
+   * @return Where the first path starts, blue side, or null if there are no
+   *         paths
+   */
+  public Pose2d getStartingPose(AutoRoutine auto) {
+    PathPlannerPath firstPath = findPath(auto.command(), true);
+    return (firstPath == null) ? null
+        : firstPath.getStartingHolonomicPose().orElse(firstPath.getStartingDifferentialPose());
+  }
+
+  /**
+   * @param auto Loaded auto
+   * @return Where the last path ends, blue side, or null if there are no paths
+   */
+  public Pose2d getEndingPose(AutoRoutine auto) {
+    PathPlannerPath lastPath = findPath(auto.command(), false);
+    if (lastPath == null) {
+      return null;
+    }
+    var poses = lastPath.getPathPoses();
+    return new Pose2d(poses.get(poses.size() - 1).getTranslation(), lastPath.getGoalEndState().rotation());
+  }
+
+  /**
+   * @param step Step to build
+   * @return Command for the step and all of its children
+   */
+  public Command buildStep(AutoStep step) {
+    switch (step.type()) {
+      case Sequential:
+        return Commands.sequence(buildChildren(step));
+      case Parallel:
+        return Commands.parallel(buildChildren(step));
+      case Race:
+        return Commands.race(buildChildren(step));
+      case Deadline:
+        Command[] children = buildChildren(step);
+        if (children.length == 0) {
+          return Commands.none();
+        }
+        Command[] others = new Command[children.length - 1];
+        System.arraycopy(children, 1, others, 0, others.length);
+        return Commands.deadline(children[0], others);
+      case Path:
+        PathPlannerPath path = paths.get(step.name());
+        if (path == null) {
+          DriverStation.reportError("Auto uses a path that didn't load: " + step.name(), false);
+          return Commands.none();
+        }
+        return profiler.profileStep("path " + step.name(), AutoBuilder.followPath(path));
+      case Named:
+        return profiler.profileStep(step.name(), NamedCommands.getCommand(step.name()));
+      case Wait:
+        return profiler.profileStep("wait " + step.waitTime() + " s", Commands.waitSeconds(step.waitTime()));
+      case Hoisted:
+        return buildHoisted(step);
+      default:
+        return Commands.none();
+    }
+  }
+
+  /*
+   * The path and its hoisted steps run side by side, the steps waiting until
+   * the robot is close to the end and slow. If it never gets slow enough they
+   * start when the path ends, like they would have without hoisting.
+   */
+  private Command buildHoisted(AutoStep step) {
+    Command[] children = buildChildren(step);
+    Command[] prep = new Command[children.length - 1];
+    System.arraycopy(children, 1, prep, 0, prep.length);
+
+    var poses = paths.get(step.name()).getPathPoses();
+    var blueEnd = poses.get(poses.size() - 1).getTranslation();
+    /* [alliance] */
+    Translation2d[] end = { blueEnd, FlippingUtil.flipFieldPosition(blueEnd) };
+    boolean[] pathDone = new boolean[1];
+
+    return Commands.parallel(
+        children[0].beforeStarting(() -> pathDone[0] = false).finallyDo(() -> pathDone[0] = true),
+        Commands.waitUntil(() -> {
+          var state = drivetrainSubsys.getState();
+          return pathDone[0]
+              || (state.Pose.getTranslation().getDistance(end[drivetrainSubsys.isRedAlliance() ? kRed : kBlue])
+                  <= AutonConstants.kHoistDistanceMeters
+                  && Math.hypot(state.Speeds.vxMetersPerSecond, state.Speeds.vyMetersPerSecond)
+                      <= AutonConstants.kHoistMaxSpeedMetersPerSecond);
+        }).andThen(prep));
+  }
+
+  private Command[] buildChildren(AutoStep step) {
+    Command[] children = new Command[step.children().size()];
+    for (int i = 0; i < children.length; ++i) {
+      children[i] = buildStep(step.children().get(i));
+    }
+    return children;
+  }
+
+  private PathPlannerPath findPath(AutoStep step, boolean first) {
+    if (step.type() == StepType.Path) {
+      return paths.get(step.name());
+    }
+    for (int i = 0; i < step.children().size(); ++i) {
+      var path = findPath(step.children().get(first ? i : step.children().size() - 1 - i), first);
+      if (path != null) {
+        return path;
+      }
+    }
+    return null;
+  }
+
+  private static AutoStep parseStep(JsonNode json) {
+    JsonNode data = json.get("data");
+    switch (json.get("type").asText()) {
+      case "sequential":
+        return new AutoStep(StepType.Sequential, null, 0.0, parseChildren(data));
+      case "parallel":
+        return new AutoStep(StepType.Parallel, null, 0.0, parseChildren(data));
+      case "race":
+        return new AutoStep(StepType.Race, null, 0.0, parseChildren(data));
+      case "deadline":
+        return new AutoStep(StepType.Deadline, null, 0.0, parseChildren(data));
+      case "path":
+        return new AutoStep(StepType.Path, data.get("pathName").asText(), 0.0, List.of());
+      case "named":
+        return new AutoStep(StepType.Named, data.get("name").asText(), 0.0, List.of());
+      case "wait":
+        return new AutoStep(StepType.Wait, null, data.get("waitTime").asDouble(), List.of());
+      default:
+        throw new IllegalArgumentException("Unknown auto command type: " + json.get("type").asText());
+    }
+  }
+
+  private static List<AutoStep> parseChildren(JsonNode data) {
+    List<AutoStep> children = new ArrayList<>();
+    for (JsonNode child : data.get("commands")) {
+      children.add(parseStep(child));
+    }
+    return children;
+  }
+
+  private static List<String> listFiles(String folder, String extension) {
+    List<String> names = new ArrayList<>();
+    File[] files = new File(kPathPlannerDirectory, folder).listFiles();
+    if (files != null) {
+      for (File file : files) {
+        if (file.isFile() && file.getName().endsWith(extension)) {
+          names.add(file.getName().substring(0, file.getName().length() - extension.length()));
+        }
+      }
+    }
+    return names;
+  }
+
+  private static String formatTime(String label, long startNanos) {
+    return String.format("%s: %.1f ms", label, (System.nanoTime() - startNanos) / 1e6);
+  }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright (C) 2025 Team 3602 All rights reserved. This work is
+ * licensed under the terms of the MIT license which can be found
+ * in the root directory of this project.
+ */
+
+package frc.team3602.robot.pathing;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import edu.wpi.first.wpilibj.DataLogManager;
+import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.wpilibj2.command.Command;
+import edu.wpi.first.wpilibj2.command.WrapperCommand;
+
+/**
+ * Times every step of an auto and logs where the time went when it ends.
+ * <p>
+ * {@link AutoLoader} wraps each path, named command and wait it builds. Each
+ * loop a step is running, the time since its last loop counts as moving if
+ * anything on the robot is still moving and as waiting if everything has
+ * already stopped. A step with a lot of waiting is an auto sitting still for
+ * no reason, usually a fixed wait that's longer than it needs to be.
+ */
+public class AutoProfiler {
+  /* One run of a step, several of them can be running at once in a group */
+  private static class Step {
+    private final String name;
+    private double startTime;
+    private double lastTime;
+    private double movingSeconds = 0.0;
+    private double waitingSeconds = 0.0;
+    private boolean interrupted = false;
+
+    private Step(String name) {
+      this.name = name;
+    }
+  }
+
+  private final BooleanSupplier isMoving;
+  private final List<Step> steps = new ArrayList<>();
+  private double autoStartTime;
+
+  /**
+   * @param isMoving If the drivetrain or any mechanism is still moving
+   */
+  public AutoProfiler(BooleanSupplier isMoving) {
+    this.isMoving = isMoving;
+  }
+
+  /**
+   * @param name    Auto name for the summary
+   * @param command Whole auto
+   * @return The auto, logging a summary of its steps when it ends
+   */
+  public Command profileAuto(String name, Command command) {
+    return new WrapperCommand(command) {
+      @Override
+      public void initialize() {
+        steps.clear();
+        autoStartTime = Timer.getFPGATimestamp();
+        super.initialize();
+      }
+
+      @Override
+      public void end(boolean interrupted) {
+        super.end(interrupted);
+        logSummary(name, interrupted);
+      }
+    };
+  }
+
+  /**
+   * @param name    Step name for the summary
+   * @param command One step of an auto
+   * @return The step, timed while it runs
+   */
+  public Command profileStep(String name, Command command) {
+    return new WrapperCommand(command) {
+      private Step step;
+
+      @Override
+      public void initialize() {
+        step = new Step(name);
+        step.startTime = step.lastTime = Timer.getFPGATimestamp();
+        steps.add(step);
+        super.initialize();
+      }
+
+      @Override
+      public void execute() {
+        double now = Timer.getFPGATimestamp();
+        if (isMoving.getAsBoolean()) {
+          step.movingSeconds += now - step.lastTime;
+        } else {
+          step.waitingSeconds += now - step.lastTime;
+        }
+        step.lastTime = now;
+        super.execute();
+      }
+
+      @Override
+      public void end(boolean interrupted) {
+        super.end(interrupted);
+        step.interrupted = interrupted;
+      }
+    };
+  }
+
+  private void logSummary(String autoName, boolean interrupted) {
+    double totalSeconds = Timer.getFPGATimestamp() - autoStartTime;
+    double movingSeconds = 0.0;
+    double waitingSeconds = 0.0;
+
+    var summary = new StringBuilder(String.format("Auto %s %s in %.2f s%n", autoName,
+        interrupted ? "interrupted" : "finished", totalSeconds));
+    summary.append(String.format("  %7s  %-28s %7s %7s %7s%n", "start", "step", "total", "moving", "waiting"));
+    for (Step step : steps) {
+      summary.append(String.format("  %7.2f  %-28s %7.2f %7.2f %7.2f%s%n", step.startTime - autoStartTime,
+          step.name, step.lastTime - step.startTime, step.movingSeconds, step.waitingSeconds,
+          step.interrupted ? "  (interrupted)" : ""));
+      movingSeconds += step.movingSeconds;
+      waitingSeconds += step.waitingSeconds;
+    }
+    summary.append(String.format("  Steps spent %.2f s moving and %.2f s waiting", movingSeconds, waitingSeconds));
+    DataLogManager.log(summary.toString());
+  }
+}
@@ -0,0 +1,352 @@
+/*
+ * Copyright (C) 2025 Team 3602 All rights reserved. This work is
+ * licensed under the terms of the MIT license which can be found
+ * in the root directory of this project.
+ */
+
+package frc.team3602.robot.pathing;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pathplanner.lib.path.GoalEndState;
+import com.pathplanner.lib.path.PathConstraints;
+import com.pathplanner.lib.path.PathPlannerPath;
+import com.pathplanner.lib.util.FlippingUtil;
+
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.wpilibj.DataLogManager;
+import edu.wpi.first.wpilibj.Filesystem;
+import edu.wpi.first.wpilibj.Timer;
+
+import frc.team3602.robot.field.FieldGeometry;
+import frc.team3602.robot.pathing.FlyPathCache.CoralStation;
+
+import static frc.team3602.robot.Constants.flyPathPosesConstants.*;
+
+/**
+ * Pathfinding over PathPlanner's navgrid using one precomputed flow field per
+ * goal.
+ * <p>
+ * At startup we run Dijkstra outwards from every reef branch, both coral
+ * stations and the processor over the navgrid and keep, for every free cell,
+ * the next cell to move to. Then, for every cell, we find the farthest cell
+ * down those arrows it can drive to in a straight line. A query just hops from
+ * the robot's cell along those shortcuts, so it costs one step per corner of
+ * the path and doesn't depend on how busy the field is. Everything is stored
+ * on the blue side; red queries are flipped in and out.
+ */
+public class FlowFieldPathfinder {
+  private static final int kBargeStationGoal = FieldGeometry.kReefBranchCount;
+  private static final int kNonBargeStationGoal = FieldGeometry.kReefBranchCount + 1;
+  private static final int kProcessorGoal = FieldGeometry.kReefBranchCount + 2;
+  private static final int kGoalCount = FieldGeometry.kReefBranchCount + 3;
+
+  private static final int kNoCell = -1;
+
+  private final double nodeSize;
+  private final int columns;
+  private final int rows;
+
+  /* Row major, true where there is something in the way */
+  private final boolean[] blocked;
+
+  /* [goal][cell] -> next cell towards the goal */
+  private final int[][] flow = new int[kGoalCount][];
+  /* [goal][cell] -> farthest cell down the flow we can see, kNoCell at the goal */
+  private final int[][] shortcut = new int[kGoalCount][];
+  /* [goal][cell] -> distance to the goal in cells */
+  private final float[][] distance = new float[kGoalCount][];
+  private final Pose2d[] goals = new Pose2d[kGoalCount];
+  /* Flipped once here so a red path doesn't have to */
+  private final Rotation2d[] redGoalRotations = new Rotation2d[kGoalCount];
+
+  private final PathConstraints constraints = new PathConstraints(kMaxVelocity, kMaxAcceleration,
+      kMaxAngularVelocity, kMaxAngularAcceleration);
+
+  public FlowFieldPathfinder() throws IOException {
+    double startTime = Timer.getFPGATimestamp();
+
+    JsonNode navgrid = new ObjectMapper()
+        .readTree(new File(Filesystem.getDeployDirectory(), "pathplanner/navgrid.json"));
+    JsonNode grid = navgrid.get("grid");
+
+    nodeSize = navgrid.get("nodeSizeMeters").asDouble();
+    rows = grid.size();
+    columns = grid.get(0).size();
+    blocked = new boolean[rows * columns];
+    for (int row = 0; row < rows; ++row) {
+      for (int column = 0; column < columns; ++column) {
+        blocked[row * columns + column] = grid.get(row).get(column).asBoolean();
+      }
+    }
+
+    for (int branch = 0; branch < FieldGeometry.kReefBranchCount; ++branch) {
+      goals[branch] = FieldGeometry.getBlueReefBranchPose(branch);
+    }
+    goals[kBargeStationGoal] = FieldGeometry.getCoralStationPose(CoralStation.Barge, false);
+    goals[kNonBargeStationGoal] = FieldGeometry.getCoralStationPose(CoralStation.NonBarge, false);
+    goals[kProcessorGoal] = FieldGeometry.getProcessorPose(false);
+
+    for (int goal = 0; goal < kGoalCount; ++goal) {
+      redGoalRotations[goal] = FlippingUtil.flipFieldRotation(goals[goal].getRotation());
+      buildFlowField(goal);
+    }
+
+    DataLogManager.log("Flow fields: " + kGoalCount + " goals over " + columns + "x" + rows + " cells in "
+        + Math.round((Timer.getFPGATimestamp() - startTime) * 1000.0) + " ms");
+  }
+
+  /**
+   * @param fieldPose Robot pose in field coordinates
+   * @param branch    Reef branch, see {@link FieldGeometry#getReefBranchIndex}
+   * @param isRed     If we are on the red alliance
+   * @return An obstacle free path to the branch, or null if there isn't one
+   */
+  public PathPlannerPath getPathToReefBranch(Pose2d fieldPose, int branch, boolean isRed) {
+    return getPath(fieldPose, branch, isRed);
+  }
+
+  /**
+   * @param fieldPose Robot pose in field coordinates
+   * @param station   Which coral station to go to
+   * @param isRed     If we are on the red alliance
+   * @return An obstacle free path to the station, or null if there isn't one
+   */
+  public PathPlannerPath getPathToCoralStation(Pose2d fieldPose, CoralStation station, boolean isRed) {
+    return getPath(fieldPose, station == CoralStation.Barge ? kBargeStationGoal : kNonBargeStationGoal, isRed);
+  }
+
+  /**
+   * @param fieldPose Robot pose in field coordinates
+   * @param isRed     If we are on the red alliance
+   * @return An obstacle free path to our processor, or null if there isn't one
+   */
+  public PathPlannerPath getPathToProcessor(Pose2d fieldPose, boolean isRed) {
+    return getPath(fieldPose, kProcessorGoal, isRed);
+  }
+
+  private PathPlannerPath getPath(Pose2d fieldPose, int goal, boolean isRed) {
+    var start = isRed ? new Translation2d(FieldGeometry.flipX(fieldPose.getX()), FieldGeometry.flipY(fieldPose.getY()))
+        : fieldPose.getTranslation();
+
+    int cell = nearestFreeCell(start);
+    if (cell == kNoCell || Float.isInfinite(distance[goal][cell])) {
+      return null;
+    }
+
+    // Hop along the shortcuts, every cell we land on short of the goal is a
+    // corner of the path
+    List<Translation2d> points = new ArrayList<>();
+    points.add(start);
+    for (int corner = shortcut[goal][cell]; corner != kNoCell && flow[goal][corner] != kNoCell;
+        corner = shortcut[goal][corner]) {
+      points.add(getCellCenter(corner));
+    }
+    points.add(goals[goal].getTranslation());
+
+    if (points.get(0).getDistance(points.get(points.size() - 1)) < nodeSize) {
+      // Already there
+      return null;
+    }
+
+    var poses = new ArrayList<Pose2d>(points.size());
+    for (int i = 0; i < points.size(); ++i) {
+      var previous = points.get(Math.max(i - 1, 0));
+      var next = points.get(Math.min(i + 1, points.size() - 1));
+      var pose = new Pose2d(points.get(i), next.minus(previous).getAngle());
+      poses.add(isRed ? FlippingUtil.flipFieldPose(pose) : pose);
+    }
+
+    var goalRotation = isRed ? redGoalRotations[goal] : goals[goal].getRotation();
+    var path = new PathPlannerPath(PathPlannerPath.waypointsFromPoses(poses), constraints, null,
+        new GoalEndState(0.0, goalRotation));
+    path.preventFlipping = true;
+
+    return path;
+  }
+
+  private void buildFlowField(int goal) {
+    int cellCount = rows * columns;
+    float[] cost = new float[cellCount];
+    int[] next = new int[cellCount];
+    Arrays.fill(cost, Float.POSITIVE_INFINITY);
+    Arrays.fill(next, kNoCell);
+
+    // Scoring poses sit right up against the reef, so start from the closest
+    // cell we are allowed to drive in
+    int goalCell = nearestFreeCell(goals[goal].getTranslation());
+    cost[goalCell] = 0.0f;
+
+    // Entries are the cost's float bits in the upper half and the cell in the
+    // lower half, which sorts by cost since costs are never negative
+    var queue = new PriorityQueue<Long>();
+    queue.add((long) goalCell);
+    /* Cells in the order they were settled, closest to the goal first */
+    int[] settled = new int[cellCount];
+    int settledCount = 0;
+    while (!queue.isEmpty()) {
+      long entry = queue.poll();
+      int cell = (int) entry;
+      float cellCost = Float.intBitsToFloat((int) (entry >>> 32));
+      if (cellCost > cost[cell]) {
+        continue;
+      }
+      settled[settledCount++] = cell;
+
+      int row = cell / columns;
+      int column = cell % columns;
+      for (int dRow = -1; dRow <= 1; ++dRow) {
+        for (int dColumn = -1; dColumn <= 1; ++dColumn) {
+          if (dRow == 0 && dColumn == 0) {
+            continue;
+          }
+          int neighborRow = row + dRow;
+          int neighborColumn = column + dColumn;
+          if (!isFree(neighborRow, neighborColumn)) {
+            continue;
+          }
+          // Don't cut the corners of obstacles
+          if (dRow != 0 && dColumn != 0 && (!isFree(row + dRow, column) || !isFree(row, column + dColumn))) {
+            continue;
+          }
+
+          int neighbor = neighborRow * columns + neighborColumn;
+          float neighborCost = cellCost + ((dRow != 0 && dColumn != 0) ? 1.41421356f : 1.0f);
+          if (neighborCost < cost[neighbor]) {
+            cost[neighbor] = neighborCost;
+            next[neighbor] = cell;
+            queue.add(((long) Float.floatToIntBits(neighborCost) << 32) | neighbor);
+          }
+        }
+      }
+    }
+
+    distance[goal] = cost;
+    flow[goal] = next;
+    shortcut[goal] = buildShortcuts(next, settled, settledCount);
+  }
+
+  /*
+   * A cell's shortcut is the farthest cell down its flow it can see, up to the
+   * first one it can't. Cells are done closest to the goal first, so the next
+   * cell's shortcut is already known and the search starts from there. It
+   * usually only takes a line of sight check or two per cell instead of one
+   * per cell left on the path.
+   */
+  private int[] buildShortcuts(int[] next, int[] settled, int settledCount) {
+    int[] shortcuts = new int[rows * columns];
+    Arrays.fill(shortcuts, kNoCell);
+
+    for (int i = 0; i < settledCount; ++i) {
+      int cell = settled[i];
+      int step = next[cell];
+      if (step == kNoCell) {
+        // The goal cell
+        continue;
+      }
+
+      int farthest = step;
+      int nextShortcut = shortcuts[step];
+      if (nextShortcut != kNoCell && hasLineOfSight(cell, nextShortcut)) {
+        // We see at least as far as the next cell, maybe farther
+        farthest = nextShortcut;
+        while (next[farthest] != kNoCell && hasLineOfSight(cell, next[farthest])) {
+          farthest = next[farthest];
+        }
+      } else if (nextShortcut != kNoCell) {
+        // Something is in the way sooner, walk up to it
+        while (farthest != nextShortcut && hasLineOfSight(cell, next[farthest])) {
+          farthest = next[farthest];
+        }
+      }
+      shortcuts[cell] = farthest;
+    }
+
+    return shortcuts;
+  }
+
+  private boolean isFree(int row, int column) {
+    return row >= 0 && row < rows && column >= 0 && column < columns && !blocked[row * columns + column];
+  }
+
+  private Translation2d getCellCenter(int cell) {
+    return new Translation2d(((cell % columns) + 0.5) * nodeSize, ((cell / columns) + 0.5) * nodeSize);
+  }
+
+  /* Closest cell to a point that isn't blocked, searching outwards ring by ring */
+  private int nearestFreeCell(Translation2d point) {
+    int row = MathUtil.clamp((int) (point.getY() / nodeSize), 0, rows - 1);
+    int column = MathUtil.clamp((int) (point.getX() / nodeSize), 0, columns - 1);
+
+    for (int radius = 0; radius < Math.max(rows, columns); ++radius) {
+      int best = kNoCell;
+      double bestDistance = Double.POSITIVE_INFINITY;
+      for (int r = row - radius; r <= row + radius; ++r) {
+        for (int c = column - radius; c <= column + radius; ++c) {
+          if (Math.max(Math.abs(r - row), Math.abs(c - column)) != radius || !isFree(r, c)) {
+            continue;
+          }
+          double d = getCellCenter(r * columns + c).getDistance(point);
+          if (d < bestDistance) {
+            bestDistance = d;
+            best = r * columns + c;
+          }
+        }
+      }
+      if (best != kNoCell) {
+        return best;
+      }
+    }
+
+    return kNoCell;
+  }
+
+  /* Walks every cell the line between two cell centers touches */
+  private boolean hasLineOfSight(int fromCell, int toCell) {
+    int row = fromCell / columns;
+    int column = fromCell % columns;
+    int endRow = toCell / columns;
+    int endColumn = toCell % columns;
+
+    int dRow = Math.abs(endRow - row);
+    int dColumn = Math.abs(endColumn - column);
+    int stepRow = endRow > row ? 1 : -1;
+    int stepColumn = endColumn > column ? 1 : -1;
+    int error = dColumn - dRow;
+
+    for (int steps = dRow + dColumn; steps > 0; --steps) {
+      if (error > 0) {
+        column += stepColumn;
+        error -= 2 * dRow;
+      } else if (error < 0) {
+        row += stepRow;
+        error += 2 * dColumn;
+      } else {
+        // Passing exactly through a corner, both sides have to be clear
+        if (!isFree(row + stepRow, column) || !isFree(row, column + stepColumn)) {
+          return false;
+        }
+        row += stepRow;
+        column += stepColumn;
+        error += 2 * (dColumn - dRow);
+        --steps;
+      }
+
+      if (!isFree(row, column)) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+}
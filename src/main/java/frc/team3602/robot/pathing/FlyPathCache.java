@@ -0,0 +1,261 @@
+/*
+ * Copyright (C) 2025 Team 3602 All rights reserved. This work is
+ * licensed under the terms of the MIT license which can be found
+ * in the root directory of this project.
+ */
+
+package frc.team3602.robot.pathing;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.pathplanner.lib.config.RobotConfig;
+import com.pathplanner.lib.path.GoalEndState;
+import com.pathplanner.lib.path.PathConstraints;
+import com.pathplanner.lib.path.PathPlannerPath;
+import com.pathplanner.lib.util.FlippingUtil;
+
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+import edu.wpi.first.wpilibj.DataLogManager;
+import edu.wpi.first.wpilibj.Timer;
+
+import frc.team3602.robot.field.FieldGeometry;
+
+import static frc.team3602.robot.Constants.flyPathPosesConstants.*;
+
+/**
+ * Pre-routed on-the-fly paths from anywhere on our half of the field to either
+ * coral station.
+ * <p>
+ * The blue half of the field is split into square regions. For every region,
+ * station and alliance the route out of that region (reef detour, approach
+ * points and the station itself) is worked out once at startup and stored as a
+ * plain array of poses. On a button press we only index into the table and
+ * put the robot's current pose in front of the stored route, so the path
+ * always starts where the robot actually is and along the way it is already
+ * moving.
+ */
+public class FlyPathCache {
+  public enum CoralStation {
+    Barge,
+    NonBarge;
+  }
+
+  private static final int kBlue = 0;
+  private static final int kRed = 1;
+
+  /* Anything closer than this to the robot is dropped from the route */
+  private static final double kMinWaypointSpacingMeters = 0.3;
+
+  private final int columns = (int) Math.ceil((kFieldLengthMeters / 2.0) / kRegionSizeMeters);
+  private final int rows = (int) Math.ceil(kFieldWidthMeters / kRegionSizeMeters);
+
+  /* [alliance][station][region] -> remaining route, excluding the start pose */
+  private final Pose2d[][][][] routes = new Pose2d[2][CoralStation.values().length][columns * rows][];
+  private final GoalEndState[][] goalEndStates = new GoalEndState[2][CoralStation.values().length];
+
+  private final PathConstraints constraints = new PathConstraints(kMaxVelocity, kMaxAcceleration,
+      kMaxAngularVelocity, kMaxAngularAcceleration);
+
+  public FlyPathCache() {
+    for (CoralStation station : CoralStation.values()) {
+      goalEndStates[kBlue][station.ordinal()] = new GoalEndState(0.0,
+          FieldGeometry.getCoralStationPose(station, false).getRotation());
+      goalEndStates[kRed][station.ordinal()] = new GoalEndState(0.0,
+          FieldGeometry.getCoralStationPose(station, true).getRotation());
+
+      for (int column = 0; column < columns; ++column) {
+        for (int row = 0; row < rows; ++row) {
+          var regionCenter = new Translation2d((column + 0.5) * kRegionSizeMeters, (row + 0.5) * kRegionSizeMeters);
+          Pose2d[] blueRoute = routeFrom(regionCenter, station);
+          Pose2d[] redRoute = new Pose2d[blueRoute.length];
+          for (int i = 0; i < blueRoute.length; ++i) {
+            redRoute[i] = FlippingUtil.flipFieldPose(blueRoute[i]);
+          }
+
+          routes[kBlue][station.ordinal()][column * rows + row] = blueRoute;
+          routes[kRed][station.ordinal()][column * rows + row] = redRoute;
+        }
+      }
+    }
+  }
+
+  /**
+   * Generates one trajectory to each station for both alliances so the path
+   * and trajectory code is already loaded and compiled before the first button
+   * press.
+   *
+   * @param config Robot config the path follower uses
+   */
+  public void warmUp(RobotConfig config) {
+    double startTime = Timer.getFPGATimestamp();
+    var pose = new Pose2d(kFieldLengthMeters / 4.0, kFieldWidthMeters / 2.0, Rotation2d.kZero);
+    var speeds = new ChassisSpeeds();
+
+    for (CoralStation station : CoralStation.values()) {
+      getPath(pose, speeds, station, false).generateTrajectory(speeds, pose.getRotation(), config);
+      getPath(FlippingUtil.flipFieldPose(pose), speeds, station, true)
+          .generateTrajectory(speeds, pose.getRotation(), config);
+    }
+
+    DataLogManager.log("Flypath cache: " + (routes[kBlue][0].length * 4) + " routes, warmed up in "
+        + Math.round((Timer.getFPGATimestamp() - startTime) * 1000.0) + " ms");
+  }
+
+  /**
+   * Picks the station on the same side of the field as the robot.
+   *
+   * @param fieldPose Robot pose in field coordinates
+   * @param isRed     If we are on the red alliance
+   * @return Closest coral station
+   */
+  public CoralStation getClosestStation(Pose2d fieldPose, boolean isRed) {
+    double y = isRed ? FieldGeometry.flipY(fieldPose.getY()) : fieldPose.getY();
+    return y >= kFieldWidthMeters / 2.0 ? CoralStation.Barge : CoralStation.NonBarge;
+  }
+
+  /**
+   * Builds a path from the robot's current pose to a coral station using the
+   * pre-routed waypoints for the region the robot is in.
+   *
+   * @param fieldPose   Robot pose in field coordinates
+   * @param robotSpeeds Robot relative speeds, used to start the path along our
+   *                    current motion
+   * @param station     Which station to drive to
+   * @param isRed       If we are on the red alliance
+   * @return A path that is already in the correct alliance frame, or null if we
+   *         are already at the station
+   */
+  public PathPlannerPath getPath(Pose2d fieldPose, ChassisSpeeds robotSpeeds, CoralStation station,
+      boolean isRed) {
+    int alliance = isRed ? kRed : kBlue;
+    Pose2d[] route = routes[alliance][station.ordinal()][isRed
+        ? getRegion(FieldGeometry.flipX(fieldPose.getX()), FieldGeometry.flipY(fieldPose.getY()))
+        : getRegion(fieldPose.getX(), fieldPose.getY())];
+
+    var translation = fieldPose.getTranslation();
+    if (translation.getDistance(route[route.length - 1].getTranslation()) < kMinWaypointSpacingMeters) {
+      // Already there
+      return null;
+    }
+
+    int first = 0;
+    while (first < route.length - 1
+        && route[first].getTranslation().getDistance(translation) < kMinWaypointSpacingMeters) {
+      ++first;
+    }
+
+    // Start along our current direction of travel if we are moving, otherwise
+    // point straight at the next waypoint
+    Rotation2d startHeading;
+    double vx = robotSpeeds.vxMetersPerSecond * fieldPose.getRotation().getCos()
+        - robotSpeeds.vyMetersPerSecond * fieldPose.getRotation().getSin();
+    double vy = robotSpeeds.vxMetersPerSecond * fieldPose.getRotation().getSin()
+        + robotSpeeds.vyMetersPerSecond * fieldPose.getRotation().getCos();
+    if (Math.hypot(vx, vy) > kBlendSpeedMetersPerSec) {
+      startHeading = new Rotation2d(vx, vy);
+    } else {
+      startHeading = route[first].getTranslation().minus(translation).getAngle();
+    }
+
+    var poses = new ArrayList<Pose2d>(route.length - first + 1);
+    poses.add(new Pose2d(translation, startHeading));
+    for (int i = first; i < route.length; ++i) {
+      poses.add(route[i]);
+    }
+
+    // The ideal starting state is left null so the follower always generates
+    // the trajectory from the speeds we have right now
+    var path = new PathPlannerPath(PathPlannerPath.waypointsFromPoses(poses), constraints, null,
+        goalEndStates[alliance][station.ordinal()]);
+    path.preventFlipping = true;
+
+    return path;
+  }
+
+  /* Region from a blue side position */
+  private int getRegion(double x, double y) {
+    int column = MathUtil.clamp((int) (x / kRegionSizeMeters), 0, columns - 1);
+    int row = MathUtil.clamp((int) (y / kRegionSizeMeters), 0, rows - 1);
+    return column * rows + row;
+  }
+
+  private static Translation2d[] getBlueApproach(CoralStation station) {
+    return station == CoralStation.Barge ? blueBargeCoralIntakeApproach : blueNONBargeCoralIntakeApproach;
+  }
+
+  /* Works out the waypoints from a point on the blue side into a station */
+  private static Pose2d[] routeFrom(Translation2d start, CoralStation station) {
+    var stationPose = FieldGeometry.getCoralStationPose(station, false);
+    var stationTranslation = stationPose.getTranslation();
+    double startToStation = start.getDistance(stationTranslation);
+
+    List<Translation2d> points = new ArrayList<>();
+
+    // Only go through the approach points that are still in front of us
+    List<Translation2d> approach = new ArrayList<>();
+    for (Translation2d point : getBlueApproach(station)) {
+      if (startToStation > point.getDistance(stationTranslation) + kMinWaypointSpacingMeters) {
+        approach.add(point);
+      }
+    }
+
+    Translation2d firstTarget = approach.isEmpty() ? stationTranslation : approach.get(0);
+    if (crossesReef(start, firstTarget)) {
+      addReefDetour(start, firstTarget, points);
+    }
+    points.addAll(approach);
+    points.add(stationTranslation);
+
+    // Turn the points into poses whose rotation is the direction of travel
+    var route = new Pose2d[points.size()];
+    for (int i = 0; i < points.size(); ++i) {
+      Translation2d previous = (i == 0) ? start : points.get(i - 1);
+      Translation2d next = (i + 1 < points.size()) ? points.get(i + 1) : points.get(i);
+      route[i] = new Pose2d(points.get(i), next.minus(previous).getAngle());
+    }
+
+    return route;
+  }
+
+  private static boolean crossesReef(Translation2d from, Translation2d to) {
+    var reefCenter = FieldGeometry.getReefCenter(false);
+    var segment = to.minus(from);
+    double lengthSquared = segment.getX() * segment.getX() + segment.getY() * segment.getY();
+    if (lengthSquared < 1e-9) {
+      return from.getDistance(reefCenter) < kReefKeepOutRadiusMeters;
+    }
+
+    var toCenter = reefCenter.minus(from);
+    double t = MathUtil.clamp(
+        (toCenter.getX() * segment.getX() + toCenter.getY() * segment.getY()) / lengthSquared, 0.0, 1.0);
+    var closest = from.plus(segment.times(t));
+
+    return closest.getDistance(reefCenter) < kReefKeepOutRadiusMeters;
+  }
+
+  /* Walks around the short way of the reef in steps of at most 45 degrees */
+  private static void addReefDetour(Translation2d from, Translation2d to, List<Translation2d> points) {
+    var reefCenter = FieldGeometry.getReefCenter(false);
+    double startAngle = from.minus(reefCenter).getAngle().getRadians();
+    double endAngle = to.minus(reefCenter).getAngle().getRadians();
+    double sweep = MathUtil.angleModulus(endAngle - startAngle);
+
+    int steps = Math.max(1, (int) Math.ceil(Math.abs(sweep) / (Math.PI / 4.0)));
+    for (int i = 1; i <= steps; ++i) {
+      var point = reefCenter.plus(new Translation2d(kReefDetourRadiusMeters,
+          new Rotation2d(startAngle + sweep * i / steps)));
+
+      if (point.getDistance(from) >= kMinWaypointSpacingMeters && point.getDistance(to) >= kMinWaypointSpacingMeters) {
+        points.add(point);
+      }
+      if (!crossesReef(point, to)) {
+        return;
+      }
+    }
+  }
+}
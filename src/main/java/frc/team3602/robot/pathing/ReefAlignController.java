@@ -0,0 +1,144 @@
+/*
+ * Copyright (C) 2025 Team 3602 All rights reserved. This work is
+ * licensed under the terms of the MIT license which can be found
+ * in the root directory of this project.
+ */
+
+package frc.team3602.robot.pathing;
+
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+import edu.wpi.first.math.util.Units;
+import edu.wpi.first.wpilibj.Notifier;
+import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
+import edu.wpi.first.wpilibj2.command.Command;
+import edu.wpi.first.wpilibj2.command.FunctionalCommand;
+
+import frc.team3602.robot.Direction;
+import frc.team3602.robot.LoopGovernor;
+import frc.team3602.robot.LoopGovernor.Work;
+import frc.team3602.robot.field.FieldGeometry;
+import frc.team3602.robot.subsystems.DrivetrainSubsystem;
+
+import static frc.team3602.robot.Constants.DrivetrainConstants.*;
+
+/**
+ * Drives the robot onto the closest reef branch.
+ * <p>
+ * The controller runs on its own notifier at the odometry rate instead of in
+ * the 20 ms main loop. It drives on the fused pose estimate until we are
+ * lined up side to side and square to the reef, then hands the last few
+ * centimeters towards the reef over to the alignment LASER. Like every other
+ * way we drive, it goes through the drivetrain's setpoint generator.
+ */
+public class ReefAlignController {
+  private final DrivetrainSubsystem drivetrainSubsys;
+
+  private final Notifier notifier = new Notifier(this::update);
+
+  /*
+   * Held for a whole update, and by the command while it stops us, so an
+   * update that is already running can't drive after the command has ended
+   */
+  private final Object lock = new Object();
+  private boolean active = false;
+
+  /* Shared between the command and the notifier */
+  private volatile Pose2d target = Pose2d.kZero;
+  private volatile boolean usingRange = false;
+  private volatile boolean atGoal = false;
+
+  public ReefAlignController(DrivetrainSubsystem drivetrainSubsys) {
+    this.drivetrainSubsys = drivetrainSubsys;
+    notifier.setName("Reef Align");
+  }
+
+  /**
+   * @param side Which branch on the closest reef face to line up with
+   * @return Command that finishes once we are lined up
+   */
+  public Command align(Direction side) {
+    return new FunctionalCommand(
+        () -> {
+          target = FieldGeometry.getNearestReefBranchPose(drivetrainSubsys.getState().Pose, side,
+              drivetrainSubsys.isRedAlliance());
+          usingRange = false;
+          atGoal = false;
+          synchronized (lock) {
+            active = true;
+          }
+          notifier.startPeriodic(kAlignLoopPeriod);
+        },
+        () -> {
+          if (LoopGovernor.isEnabled(Work.Dashboard)) {
+            SmartDashboard.putBoolean("Reef Align Using LASER", usingRange);
+            SmartDashboard.putBoolean("Reef Align At Goal", atGoal);
+          }
+        },
+        interrupted -> {
+          notifier.stop();
+          synchronized (lock) {
+            active = false;
+            drivetrainSubsys.stopDriving();
+          }
+        },
+        () -> atGoal,
+        drivetrainSubsys);
+  }
+
+  private void update() {
+    synchronized (lock) {
+      if (active) {
+        drive();
+      }
+    }
+  }
+
+  private void drive() {
+    Pose2d goal = target;
+    Pose2d pose = drivetrainSubsys.getState().Pose;
+
+    // Work in the branch's frame, where +X points into the reef
+    var error = pose.relativeTo(goal);
+    double errorX = error.getX();
+    double errorY = error.getY();
+    double errorTheta = error.getRotation().getRadians();
+
+    double distance = Math.hypot(errorX, errorY);
+    double speed = Math.min(kAlignMaxSpeed,
+        Math.min(Math.sqrt(2.0 * kAlignMaxAccel * distance), kAlignTranslationKP * distance));
+    double vx = (distance > 1e-6) ? -errorX / distance * speed : 0.0;
+    double vy = (distance > 1e-6) ? -errorY / distance * speed : 0.0;
+    double omega = MathUtil.clamp(-kAlignRotationKP * errorTheta, -kAlignMaxAngularSpeed, kAlignMaxAngularSpeed);
+
+    // Drop back to the pose if we lose the reef
+    if (usingRange && !drivetrainSubsys.alignLASERIsTriggered()) {
+      usingRange = false;
+    } else if (!usingRange && Math.abs(errorY) < kAlignHandoffLateralMeters
+        && Math.abs(errorTheta) < Units.degreesToRadians(kAlignHandoffAngleDegrees)
+        && drivetrainSubsys.alignLASERIsTriggered()) {
+      usingRange = true;
+    }
+
+    boolean squared = Math.abs(errorTheta) < Units.degreesToRadians(kAlignToleranceDegrees);
+    if (usingRange) {
+      // The LASER knows better than the pose how far we are from the reef
+      double rangeError = drivetrainSubsys.getMetersFromReef() - kAlignTargetMetersFromReef;
+      vx = MathUtil.clamp(kAlignRangeKP * rangeError, -kAlignMaxSpeed, kAlignMaxSpeed);
+      vy = MathUtil.clamp(-kAlignTranslationKP * errorY, -kAlignMaxSpeed, kAlignMaxSpeed);
+      atGoal = squared && Math.abs(rangeError) < kAlignToleranceMeters
+          && Math.abs(errorY) < kAlignToleranceMeters;
+    } else {
+      atGoal = squared && distance < kAlignToleranceMeters;
+    }
+
+    // Back into field coordinates, then into the robot's for the setpoint
+    // generator
+    double cos = goal.getRotation().getCos();
+    double sin = goal.getRotation().getSin();
+    var speeds = ChassisSpeeds.fromFieldRelativeSpeeds(vx * cos - vy * sin, vx * sin + vy * cos, omega,
+        pose.getRotation());
+    drivetrainSubsys.driveRobotRelative(speeds, kAlignLoopPeriod);
+  }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (C) 2025 Team 3602 All rights reserved. This work is
+ * licensed under the terms of the MIT license which can be found
+ * in the root directory of this project.
+ */
+
+package frc.team3602.robot.subsystems;
+
+import java.nio.ByteBuffer;
+
+import frc.team3602.robot.logging.LoggableInputs;
+
+/**
+ * Everything the climber reads from and sends to its Spark.
+ * <p>
+ * {@link ClimberIOSparkMax} is the robot and {@link ClimberIOSim} is the same
+ * Spark driven by an arm sim. Replay uses these defaults, which do nothing,
+ * and the inputs come from the log.
+ */
+public interface ClimberIO {
+  /** What the climber saw this loop. */
+  class Inputs implements LoggableInputs {
+    /* Filled in by the subsystem, what the commands last asked for */
+    public double goalDegrees = Double.NaN;
+    public double goalPercent = 0.0;
+    /* Climber arm angle from the Spark's encoder, 0 is stowed */
+    public double angleDegrees = 0.0;
+    public double velocityDegreesPerSecond = 0.0;
+    public double appliedOutput = 0.0;
+    public double currentAmps = 0.0;
+
+    @Override
+    public String getTypeName() {
+      return "ClimberInputs";
+    }
+
+    @Override
+    public String getSchema() {
+      return "double goalDegrees;double goalPercent;double angleDegrees;double velocityDegreesPerSecond;"
+          + "double appliedOutput;double currentAmps";
+    }
+
+    @Override
+    public int getSize() {
+      return 6 * Double.BYTES;
+    }
+
+    @Override
+    public void pack(ByteBuffer bb) {
+      bb.putDouble(goalDegrees);
+      bb.putDouble(goalPercent);
+      bb.putDouble(angleDegrees);
+      bb.putDouble(velocityDegreesPerSecond);
+      bb.putDouble(appliedOutput);
+      bb.putDouble(currentAmps);
+    }
+
+    @Override
+    public void unpack(ByteBuffer bb) {
+      goalDegrees = bb.getDouble();
+      goalPercent = bb.getDouble();
+      angleDegrees = bb.getDouble();
+      velocityDegreesPerSecond = bb.getDouble();
+      appliedOutput = bb.getDouble();
+      currentAmps = bb.getDouble();
+    }
+  }
+
+  /**
+   * @param inputs Inputs to read into, everything but the goals
+   */
+  default void updateInputs(Inputs inputs) {
+  }
+
+  /**
+   * @param percent Output from -1 to 1, out is positive
+   */
+  default void setPercent(double percent) {
+  }
+
+  default void setVoltage(double volts) {
+  }
+
+  default void stop() {
+  }
+
+  /**
+   * Tells the encoder where the climber is, used once it's found its hard
+   * stop.
+   *
+   * @param degrees Climber angle in degrees
+   */
+  default void setAngle(double degrees) {
+  }
+
+  /** Steps the physics sim one loop with the last output, sim only. */
+  default void updateSim() {
+  }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright (C) 2025 Team 3602 All rights reserved. This work is
+ * licensed under the terms of the MIT license which can be found
+ * in the root directory of this project.
+ */
+
+package frc.team3602.robot.subsystems;
+
+import com.revrobotics.sim.SparkMaxSim;
+
+import edu.wpi.first.math.system.plant.DCMotor;
+import edu.wpi.first.math.util.Units;
+import edu.wpi.first.wpilibj.RobotController;
+import edu.wpi.first.wpilibj.TimedRobot;
+import edu.wpi.first.wpilibj.simulation.SingleJointedArmSim;
+
+import frc.team3602.robot.Constants.ClimberConstants;
+
+/**
+ * The climber's Spark driven by an arm sim, so the encoder reads the same way
+ * in sim as it does on the robot.
+ */
+public class ClimberIOSim extends ClimberIOSparkMax {
+  private final DCMotor gearbox = DCMotor.getNEO(1);
+  private final SparkMaxSim simMotor = new SparkMaxSim(motor, gearbox);
+  private final SingleJointedArmSim climberSim = new SingleJointedArmSim(gearbox, ClimberConstants.gearing,
+      SingleJointedArmSim.estimateMOI(ClimberConstants.lengthMeters, ClimberConstants.massKg),
+      ClimberConstants.lengthMeters, Units.degreesToRadians(ClimberConstants.simMinAngle),
+      Units.degreesToRadians(ClimberConstants.simMaxAngle), false, 0.0);
+
+  @Override
+  public void updateSim() {
+    double batteryVoltage = RobotController.getBatteryVoltage();
+    climberSim.setInput(simMotor.getAppliedOutput() * batteryVoltage);
+    climberSim.update(TimedRobot.kDefaultPeriod);
+
+    // The Spark wants the velocity in its conversion factor's units, it
+    // integrates that into the encoder position for us
+    simMotor.iterate(Units.radiansToDegrees(climberSim.getVelocityRadPerSec()), batteryVoltage,
+        TimedRobot.kDefaultPeriod);
+    // So homing sees the stall when the arm sim hits its hard stop
+    simMotor.setMotorCurrent(climberSim.getCurrentDrawAmps());
+  }
+
+  @Override
+  public void setAngle(double degrees) {
+    super.setAngle(degrees);
+    simMotor.setPosition(degrees);
+  }
+}
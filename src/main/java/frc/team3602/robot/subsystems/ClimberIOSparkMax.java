@@ -0,0 +1,61 @@
+/*
+ * Copyright (C) 2025 Team 3602 All rights reserved. This work is
+ * licensed under the terms of the MIT license which can be found
+ * in the root directory of this project.
+ */
+
+package frc.team3602.robot.subsystems;
+
+import com.revrobotics.RelativeEncoder;
+import com.revrobotics.spark.SparkMax;
+import com.revrobotics.spark.SparkBase.PersistMode;
+import com.revrobotics.spark.SparkBase.ResetMode;
+import com.revrobotics.spark.config.SparkMaxConfig;
+import com.revrobotics.spark.config.SparkBaseConfig.IdleMode;
+import com.revrobotics.spark.SparkLowLevel.MotorType;
+
+import frc.team3602.robot.Constants.ClimberConstants;
+
+/** The climber's NEO on a Spark MAX. */
+public class ClimberIOSparkMax implements ClimberIO {
+  protected final SparkMax motor = new SparkMax(ClimberConstants.motorCANId, MotorType.kBrushless);
+  private final RelativeEncoder encoder = motor.getEncoder();
+
+  public ClimberIOSparkMax() {
+    SparkMaxConfig motorConfig = new SparkMaxConfig();
+    motorConfig.idleMode(IdleMode.kBrake);
+    // Read the encoder in degrees of the climber arm, and degrees per second
+    motorConfig.encoder
+        .positionConversionFactor(360.0 / ClimberConstants.gearing)
+        .velocityConversionFactor(360.0 / ClimberConstants.gearing / 60.0);
+    motor.configure(motorConfig, ResetMode.kResetSafeParameters, PersistMode.kPersistParameters);
+  }
+
+  @Override
+  public void updateInputs(Inputs inputs) {
+    inputs.angleDegrees = encoder.getPosition();
+    inputs.velocityDegreesPerSecond = encoder.getVelocity();
+    inputs.appliedOutput = motor.getAppliedOutput();
+    inputs.currentAmps = motor.getOutputCurrent();
+  }
+
+  @Override
+  public void setPercent(double percent) {
+    motor.set(percent);
+  }
+
+  @Override
+  public void setVoltage(double volts) {
+    motor.setVoltage(volts);
+  }
+
+  @Override
+  public void stop() {
+    motor.stopMotor();
+  }
+
+  @Override
+  public void setAngle(double degrees) {
+    encoder.setPosition(degrees);
+  }
+}
@@ -6,30 +6,55 @@
 
 package frc.team3602.robot.subsystems;
 
-import com.revrobotics.spark.SparkMax;
-import com.revrobotics.spark.SparkBase.PersistMode;
-import com.revrobotics.spark.SparkBase.ResetMode;
-import com.revrobotics.spark.config.SparkMaxConfig;
-import com.revrobotics.spark.config.SparkBaseConfig.IdleMode;
-import com.revrobotics.spark.SparkLowLevel.MotorType;
-
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.controller.PIDController;
+import edu.wpi.first.math.filter.Debouncer;
+import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 import edu.wpi.first.wpilibj2.command.Command;
+import edu.wpi.first.wpilibj2.command.Commands;
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
 
+import frc.team3602.robot.LoopGovernor;
+import frc.team3602.robot.LoopGovernor.Work;
+import frc.team3602.robot.logging.InputLog;
+import frc.team3602.robot.logging.InputLog.LoggedInputs;
+import frc.team3602.robot.logging.InputLog.LoggedOutput;
 import frc.team3602.robot.Constants.ClimberConstants;
 
-// TODO: Write Simulation?
 public class ClimberSubsystem extends SubsystemBase {
-  private final SparkMax motor = new SparkMax(ClimberConstants.motorCANId, MotorType.kBrushless);
+  private final ClimberIO io;
+  private final ClimberIO.Inputs inputs = new ClimberIO.Inputs();
+  private final LoggedInputs loggedInputs = InputLog.inputs("Climber", inputs);
+  private final LoggedOutput percentOutput = InputLog.output("Climber/Percent");
+  private final LoggedOutput voltageOutput = InputLog.output("Climber/Voltage");
+
+  private final PIDController controller = new PIDController(ClimberConstants.KP, 0.0, 0.0);
+
+  // Angle to hold in degrees, NaN while we're driven open loop
+  private double goalDegrees = Double.NaN;
+  private double lastGoalDegrees = Double.NaN;
+  // Open loop output, only used while there's no goal angle
+  private double goalPercent = 0.0;
 
-  public void ClimberSubsytem() {
-    SparkMaxConfig motorConfig = new SparkMaxConfig();
-    motorConfig.idleMode(IdleMode.kBrake);
-    motor.configure(motorConfig, ResetMode.kResetSafeParameters, PersistMode.kPersistParameters);
+  // The encoder doesn't know where the climber is until it's been homed
+  private boolean homed = false;
+  private final Debouncer stallDebouncer = new Debouncer(ClimberConstants.homingStallSeconds);
+
+  /**
+   * @param io Spark on the robot, the sim, or nothing when replaying a log
+   */
+  public ClimberSubsystem(ClimberIO io) {
+    this.io = io;
+
+    controller.setTolerance(ClimberConstants.tolerance);
   }
 
   private Command setVoltage(double percentVoltage) {
-    return runOnce(() -> motor.set(percentVoltage));
+    return runOnce(() -> {
+      goalDegrees = Double.NaN;
+      goalPercent = percentVoltage;
+      io.setPercent(percentVoltage);
+    });
   }
 
   public Command runIn() {
@@ -43,4 +68,113 @@ public class ClimberSubsystem extends SubsystemBase {
   public Command stop() {
     return setVoltage(0.0);
   }
-}
\ No newline at end of file
+
+  /**
+   * Drives the climber in until it stalls against its inner hard stop, then
+   * zeroes the encoder there. Gives up after a few seconds without a stall.
+   */
+  public Command home() {
+    return runOnce(() -> {
+      goalDegrees = Double.NaN;
+      goalPercent = -ClimberConstants.homingPercent;
+      stallDebouncer.calculate(false);
+    })
+        .andThen(Commands.waitUntil(() -> stallDebouncer.calculate(
+            inputs.currentAmps > ClimberConstants.homingStallAmps
+                && Math.abs(inputs.velocityDegreesPerSecond) < ClimberConstants.homingStallVelocity)))
+        .andThen(runOnce(() -> {
+          io.setAngle(ClimberConstants.homeAngle);
+          homed = true;
+        }))
+        .withTimeout(ClimberConstants.homingTimeout)
+        .finallyDo(() -> {
+          goalPercent = 0.0;
+          io.stop();
+        });
+  }
+
+  /**
+   * Drives the climber to an angle and stops there, brake mode holds it. The
+   * control loop itself runs in periodic. Homes first if it hasn't yet, and
+   * does nothing if homing fails.
+   *
+   * @param angle Climber angle in degrees, 0 is stowed and out is positive
+   */
+  public Command climbTo(double angle) {
+    return home().onlyIf(() -> !homed)
+        .andThen(Commands.either(
+            runOnce(() -> goalDegrees = angle)
+                .andThen(Commands.waitUntil(controller::atSetpoint))
+                .finallyDo(() -> {
+                  goalDegrees = Double.NaN;
+                  goalPercent = 0.0;
+                  io.stop();
+                }),
+            Commands.print("Climber never found its hard stop, not moving it"),
+            () -> homed));
+  }
+
+  /** Swings the climber out to grab the cage. */
+  public Command deploy() {
+    return climbTo(ClimberConstants.deployAngle);
+  }
+
+  /** Pulls the robot up on the cage. */
+  public Command climb() {
+    return climbTo(ClimberConstants.climbAngle);
+  }
+
+  /**
+   * @return Climber angle in degrees as of this loop's periodic
+   */
+  public double getAngle() {
+    return inputs.angleDegrees;
+  }
+
+  /**
+   * @return If the encoder has been zeroed against the hard stop
+   */
+  public boolean isHomed() {
+    return homed;
+  }
+
+  @Override
+  public void periodic() {
+    // Everything below only depends on the inputs, so replaying them gives
+    // back the same outputs
+    io.updateInputs(inputs);
+    inputs.goalDegrees = goalDegrees;
+    inputs.goalPercent = goalPercent;
+    loggedInputs.process();
+    goalDegrees = inputs.goalDegrees;
+    goalPercent = inputs.goalPercent;
+
+    if (Double.isNaN(goalDegrees)) {
+      io.setPercent(goalPercent);
+      percentOutput.record(goalPercent);
+      voltageOutput.record(Double.NaN);
+    } else {
+      // Each new goal starts the controller over
+      if (Double.doubleToRawLongBits(goalDegrees) != Double.doubleToRawLongBits(lastGoalDegrees)) {
+        controller.reset();
+      }
+      double voltage = MathUtil.clamp(controller.calculate(inputs.angleDegrees, goalDegrees),
+          -ClimberConstants.maxVoltage, ClimberConstants.maxVoltage);
+      io.setVoltage(voltage);
+      percentOutput.record(Double.NaN);
+      voltageOutput.record(voltage);
+    }
+    lastGoalDegrees = goalDegrees;
+
+    if (LoopGovernor.isEnabled(Work.Dashboard)) {
+      SmartDashboard.putNumber("Climber Angle", inputs.angleDegrees);
+      SmartDashboard.putNumber("Climber Output", inputs.appliedOutput);
+      SmartDashboard.putBoolean("Climber Homed", homed);
+    }
+  }
+
+  @Override
+  public void simulationPeriodic() {
+    io.updateSim();
+  }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2025 Team 3602 All rights reserved. This work is
+ * licensed under the terms of the MIT license which can be found
+ * in the root directory of this project.
+ */
+
+package frc.team3602.robot.subsystems;
+
+import java.nio.ByteBuffer;
+
+import com.ctre.phoenix6.swerve.SwerveDrivetrain.SwerveDriveState;
+
+import frc.team3602.robot.logging.LoggableInputs;
+
+/**
+ * What the rest of the robot read from the drivetrain this loop.
+ * <p>
+ * The swerve modules and gyro are read by Phoenix on its own odometry thread,
+ * so unlike the mechanisms there's no IO layer to swap out. We log the state
+ * the robot code saw next to everything else so a replay can be lined up with
+ * where the robot was, but replay can't recompute it.
+ */
+public class DriveInputs implements LoggableInputs {
+  /* Pose estimate, meters and radians */
+  public double x = 0.0;
+  public double y = 0.0;
+  public double rotation = 0.0;
+  /* Robot relative speeds, m/s and rad/s */
+  public double vx = 0.0;
+  public double vy = 0.0;
+  public double omega = 0.0;
+  /* When the odometry thread last updated, FPGA seconds */
+  public double odometryTimestamp = 0.0;
+  /* Alignment LASER, NaN without a valid reading */
+  public double laserMeters = Double.NaN;
+
+  /**
+   * @param state       Latest drive state
+   * @param laserMeters Alignment LASER reading
+   */
+  public void update(SwerveDriveState state, double laserMeters) {
+    x = state.Pose.getX();
+    y = state.Pose.getY();
+    rotation = state.Pose.getRotation().getRadians();
+    vx = state.Speeds.vxMetersPerSecond;
+    vy = state.Speeds.vyMetersPerSecond;
+    omega = state.Speeds.omegaRadiansPerSecond;
+    odometryTimestamp = state.Timestamp;
+    this.laserMeters = laserMeters;
+  }
+
+  @Override
+  public String getTypeName() {
+    return "DriveInputs";
+  }
+
+  @Override
+  public String getSchema() {
+    return "double x;double y;double rotation;double vx;double vy;double omega;double odometryTimestamp;"
+        + "double laserMeters";
+  }
+
+  @Override
+  public int getSize() {
+    return 8 * Double.BYTES;
+  }
+
+  @Override
+  public void pack(ByteBuffer bb) {
+    bb.putDouble(x);
+    bb.putDouble(y);
+    bb.putDouble(rotation);
+    bb.putDouble(vx);
+    bb.putDouble(vy);
+    bb.putDouble(omega);
+    bb.putDouble(odometryTimestamp);
+    bb.putDouble(laserMeters);
+  }
+
+  @Override
+  public void unpack(ByteBuffer bb) {
+    x = bb.getDouble();
+    y = bb.getDouble();
+    rotation = bb.getDouble();
+    vx = bb.getDouble();
+    vy = bb.getDouble();
+    omega = bb.getDouble();
+    odometryTimestamp = bb.getDouble();
+    laserMeters = bb.getDouble();
+  }
+}
@@ -2,42 +2,61 @@ package frc.team3602.robot.subsystems;
 
 import static edu.wpi.first.units.Units.*;
 
-import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
 
 import com.ctre.phoenix6.SignalLogger;
 import com.ctre.phoenix6.Utils;
 import com.ctre.phoenix6.swerve.SwerveDrivetrainConstants;
+import com.ctre.phoenix6.swerve.SwerveDrivetrain.SwerveDriveState;
 import com.ctre.phoenix6.swerve.SwerveModuleConstants;
 import com.ctre.phoenix6.swerve.SwerveRequest;
+import com.ctre.phoenix6.swerve.SwerveModule.DriveRequestType;
 
 import com.pathplanner.lib.auto.AutoBuilder;
 import com.pathplanner.lib.config.PIDConstants;
 import com.pathplanner.lib.config.RobotConfig;
 import com.pathplanner.lib.controllers.PPHolonomicDriveController;
-import com.pathplanner.lib.path.GoalEndState;
-import com.pathplanner.lib.path.PathConstraints;
 import com.pathplanner.lib.path.PathPlannerPath;
-import com.pathplanner.lib.path.Waypoint;
+import com.pathplanner.lib.util.DriveFeedforwards;
+import com.pathplanner.lib.util.swerve.SwerveSetpoint;
+import com.pathplanner.lib.util.swerve.SwerveSetpointGenerator;
 
 import au.grapplerobotics.LaserCan;
 import edu.wpi.first.math.Matrix;
 import edu.wpi.first.math.geometry.Pose2d;
 import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+import edu.wpi.first.math.kinematics.SwerveModuleState;
 import edu.wpi.first.math.numbers.N1;
 import edu.wpi.first.math.numbers.N3;
 import edu.wpi.first.wpilibj.DriverStation;
 import edu.wpi.first.wpilibj.DriverStation.Alliance;
 import edu.wpi.first.wpilibj.Notifier;
 import edu.wpi.first.wpilibj.RobotController;
+import edu.wpi.first.wpilibj.TimedRobot;
+import edu.wpi.first.wpilibj.Timer;
 import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.Commands;
 import edu.wpi.first.wpilibj2.command.Subsystem;
 import edu.wpi.first.wpilibj2.command.sysid.SysIdRoutine;
 import frc.team3602.robot.generated.TunerConstants.TunerSwerveDrivetrain;
+import frc.team3602.robot.Direction;
+import frc.team3602.robot.LoopGovernor;
+import frc.team3602.robot.LoopGovernor.Work;
 import frc.team3602.robot.Constants.DrivetrainConstants;
-import frc.team3602.robot.Constants.flyPathPosesConstants;
+import frc.team3602.robot.field.FieldGeometry;
+import frc.team3602.robot.generated.TunerConstants;
+import frc.team3602.robot.logging.InputLog;
+import frc.team3602.robot.logging.InputLog.LoggedInputs;
+import frc.team3602.robot.odometry.OdometryMonitor;
+import frc.team3602.robot.odometry.SlipDetector;
+import frc.team3602.robot.pathing.FlowFieldPathfinder;
+import frc.team3602.robot.pathing.FlyPathCache;
+import frc.team3602.robot.pathing.FlyPathCache.CoralStation;
+import frc.team3602.robot.pathing.ReefAlignController;
 
 /**
  * Class that extends the Phoenix 6 SwerveDrivetrain class and implements
@@ -55,8 +74,44 @@ public class DrivetrainSubsystem extends TunerSwerveDrivetrain implements Subsys
   /* Keep track if we've ever applied the operator perspective before or not */
   private boolean m_hasAppliedOperatorPerspective = false;
 
+  /* Keep track of which way the operator is facing for field centric driving */
+  private Rotation2d m_operatorForward = kBlueAlliancePerspectiveRotation;
+
   /** Swerve request to apply during robot-centric path following */
   private final SwerveRequest.ApplyRobotSpeeds m_pathApplyRobotSpeeds = new SwerveRequest.ApplyRobotSpeeds();
+  /** Swerve request to apply while the driver drives, open loop like it always was */
+  private final SwerveRequest.ApplyRobotSpeeds m_teleopApplyRobotSpeeds = new SwerveRequest.ApplyRobotSpeeds()
+      .withDriveRequestType(DriveRequestType.OpenLoopVoltage);
+
+  /*
+   * Limits how fast each module can speed up and steer based on the robot model
+   * in the PathPlanner settings (mass, MOI, wheel COF, current limit), so we
+   * drive right at the edge of traction without breaking the wheels loose.
+   * Null until configDrivetrainSubsys loads the robot config.
+   */
+  private SwerveSetpointGenerator m_setpointGenerator = null;
+  private SwerveSetpoint m_previousSetpoint;
+  private double m_lastSetpointTime = 0.0;
+  /* The reef align notifier drives from its own thread, guards the setpoint */
+  private final Object m_setpointLock = new Object();
+
+  /* Path following gains, shared with the warm-up's controller */
+  private static final PIDConstants kTranslationPID = new PIDConstants(10, 0, 0);
+  private static final PIDConstants kRotationPID = new PIDConstants(7, 0, 0);
+
+  /*
+   * Warm-up only, so the real controller and setpoint never see it. Null
+   * until configDrivetrainSubsys loads the robot config.
+   */
+  private RobotConfig m_robotConfig = null;
+  private final PPHolonomicDriveController m_warmUpController = new PPHolonomicDriveController(kTranslationPID,
+      kRotationPID);
+  private static final double kWarmUpSampleSeconds = 0.1;
+
+  private static final double[] kZeroForces = new double[4];
+  private static final ChassisSpeeds kZeroSpeeds = new ChassisSpeeds();
+  private final ChassisSpeeds m_fieldCentricSpeeds = new ChassisSpeeds();
+  private final ChassisSpeeds m_robotCentricSpeeds = new ChassisSpeeds();
 
   /* Swerve requests to apply during SysId characterization */
   private final SwerveRequest.SysIdSwerveTranslation m_translationCharacterization = new SwerveRequest.SysIdSwerveTranslation();
@@ -64,8 +119,25 @@ public class DrivetrainSubsystem extends TunerSwerveDrivetrain implements Subsys
   private final SwerveRequest.SysIdSwerveRotation m_rotationCharacterization = new SwerveRequest.SysIdSwerveRotation();
 
   private final LaserCan alignmentLASER = new LaserCan(DrivetrainConstants.kAlignmentLASERCANId);
-  private double distance = 0.0;
-  private boolean reefDetected = false;
+  /* Read by the reef align notifier, so only ever update these in periodic */
+  private volatile double distance = Double.NaN;
+  private volatile boolean reefDetected = false;
+
+  private final ReefAlignController reefAlignController = new ReefAlignController(this);
+
+  /* Logged each loop so replays can be lined up with where the robot was */
+  private final DriveInputs m_inputs = new DriveInputs();
+  private final LoggedInputs m_loggedInputs = InputLog.inputs("Drive", m_inputs);
+
+  /*
+   * Runs on the odometry thread through the telemetry callback. We only read
+   * its results in periodic, calling back into the drivetrain from the
+   * odometry thread isn't safe.
+   */
+  private SlipDetector m_slipDetector;
+  private OdometryMonitor m_odometryMonitor;
+  private volatile Consumer<SwerveDriveState> m_telemetryFunction = null;
+  private boolean m_odometryDeweighted = false;
 
   /*
    * SysId routine for characterizing translation. This is used to find PID gains
@@ -147,6 +219,7 @@ public class DrivetrainSubsystem extends TunerSwerveDrivetrain implements Subsys
     if (Utils.isSimulation()) {
       startSimThread();
     }
+    startOdometryMonitors(0.0);
   }
 
   /**
@@ -172,6 +245,7 @@ public class DrivetrainSubsystem extends TunerSwerveDrivetrain implements Subsys
     if (Utils.isSimulation()) {
       startSimThread();
     }
+    startOdometryMonitors(odometryUpdateFrequency);
   }
 
   /**
@@ -212,6 +286,7 @@ public class DrivetrainSubsystem extends TunerSwerveDrivetrain implements Subsys
     if (Utils.isSimulation()) {
       startSimThread();
     }
+    startOdometryMonitors(odometryUpdateFrequency);
   }
 
   /**
@@ -262,18 +337,77 @@ public class DrivetrainSubsystem extends TunerSwerveDrivetrain implements Subsys
      */
     if (!m_hasAppliedOperatorPerspective || DriverStation.isDisabled()) {
       DriverStation.getAlliance().ifPresent(allianceColor -> {
-        setOperatorPerspectiveForward(
-            allianceColor == Alliance.Red
-                ? kRedAlliancePerspectiveRotation
-                : kBlueAlliancePerspectiveRotation);
+        m_operatorForward = allianceColor == Alliance.Red
+            ? kRedAlliancePerspectiveRotation
+            : kBlueAlliancePerspectiveRotation;
+        setOperatorPerspectiveForward(m_operatorForward);
         m_hasAppliedOperatorPerspective = true;
       });
     }
 
-    distance = getMetersFromReef();
-    reefDetected = alignLASERIsTriggered();
-    SmartDashboard.putNumber("LASER", distance);
-    SmartDashboard.putBoolean("REEF DETECTED", reefDetected);
+    var measurement = alignmentLASER.getMeasurement();
+    if (measurement != null && measurement.status == LaserCan.LASERCAN_STATUS_VALID_MEASUREMENT) {
+      distance = measurement.distance_mm / 1000.0;
+    } else {
+      distance = Double.NaN;
+    }
+    reefDetected = (distance >= DrivetrainConstants.minMetersFromReef
+        && distance <= DrivetrainConstants.maxMetersFromReef);
+
+    m_inputs.update(getState(), distance);
+    m_loggedInputs.process();
+
+    // Lean on vision while the wheels can't be trusted
+    boolean tractionLost = m_slipDetector.isTractionLost();
+    if (tractionLost != m_odometryDeweighted) {
+      setStateStdDevs(tractionLost ? DrivetrainConstants.kSlipOdometryStdDevs : DrivetrainConstants.kOdometryStdDevs);
+      m_odometryDeweighted = tractionLost;
+    }
+
+    if (LoopGovernor.isEnabled(Work.Dashboard)) {
+      SmartDashboard.putNumber("LASER", distance);
+      SmartDashboard.putBoolean("REEF DETECTED", reefDetected);
+      SmartDashboard.putBoolean("Traction Lost", tractionLost);
+      SmartDashboard.putNumber("Slip Events", m_slipDetector.getSlipCount());
+      SmartDashboard.putNumber("Collision Events", m_slipDetector.getCollisionCount());
+    }
+
+    m_odometryMonitor.periodic();
+  }
+
+  /**
+   * Registers a function to be called with the drive state after every
+   * odometry update. The slip detector always runs first.
+   *
+   * @param telemetryFunction Function to call, null to only run the slip
+   *                          detector
+   */
+  @Override
+  public void registerTelemetry(Consumer<SwerveDriveState> telemetryFunction) {
+    m_telemetryFunction = telemetryFunction;
+  }
+
+  /*
+   * odometryUpdateFrequency is what the constructor got, 0 meaning Phoenix's
+   * default for the bus
+   */
+  private void startOdometryMonitors(double odometryUpdateFrequency) {
+    getOdometryThread().setThreadPriority(DrivetrainConstants.kOdometryThreadPriority);
+
+    if (odometryUpdateFrequency <= 0.0) {
+      odometryUpdateFrequency = TunerConstants.kCANBus.isNetworkFD() ? 250.0 : 100.0;
+    }
+
+    m_slipDetector = new SlipDetector(getModuleLocations(), getPigeon2());
+    m_odometryMonitor = new OdometryMonitor(odometryUpdateFrequency, TunerConstants.kCANBus);
+    super.registerTelemetry(state -> {
+      m_odometryMonitor.update(state);
+      m_slipDetector.update(state);
+      var telemetryFunction = m_telemetryFunction;
+      if (telemetryFunction != null) {
+        telemetryFunction.accept(state);
+      }
+    });
   }
 
   private void startSimThread() {
@@ -291,162 +425,304 @@ public class DrivetrainSubsystem extends TunerSwerveDrivetrain implements Subsys
     m_simNotifier.startPeriodic(kSimLoopPeriod);
   }
 
-  // NEW
   // Pathplanner - create paths on the fly
+  // the routes to both coral stations are worked out once for every region of
+  // the field, so a button press only has to look one up
+  private final FlyPathCache flyPathCache = new FlyPathCache();
 
-  // lists are the points the robot will use to travel along
-  // TODO make waypoints more accurate & fix with real robot testing
-  // I don't think it needs red vs blue, but in the meantime, I created some red
-  // vars too
-  // in the var names, barge refers to the barge side of the field. from the
-  // drivers station, this is the left side of the field
-  private List<Waypoint> blueFarBargeReefToCoralIntake = PathPlannerPath.waypointsFromPoses(
-      new Pose2d(5.7, 6.4, Rotation2d.fromDegrees(-10)),
-      new Pose2d(2.6, 7.3, Rotation2d.fromDegrees(10)),
-      flyPathPosesConstants.blueBargeCoralIntakePose);
-  private List<Waypoint> blueCloseBargeReefToCoralIntake = PathPlannerPath.waypointsFromPoses(
-      new Pose2d(2.6, 7.3, Rotation2d.fromDegrees(10)),
-      flyPathPosesConstants.blueBargeCoralIntakePose);
-  private List<Waypoint> blueFarNONBargeReefToCoralIntake = PathPlannerPath.waypointsFromPoses(
-      new Pose2d(5.7, 2.2, Rotation2d.fromDegrees(20)),
-      new Pose2d(2.6, 1.8, Rotation2d.fromDegrees(60)),
-      new Pose2d(1.2, 1.8, Rotation2d.fromDegrees(125)),
-
-      flyPathPosesConstants.blueNONBargeCoralIntakePose);
-  private List<Waypoint> blueCloseNONBargeReefToCoralIntake = PathPlannerPath.waypointsFromPoses(
-      new Pose2d(2.6, 1.8, Rotation2d.fromDegrees(60)),
-      new Pose2d(1.2, 1.8, Rotation2d.fromDegrees(125)),
-      flyPathPosesConstants.blueNONBargeCoralIntakePose);
-
-  private PathConstraints constraints = new PathConstraints(3.0, 3.0, 2 * Math.PI, 4 * Math.PI);
-
-  // command to get us to the coral station
-  // we can use booleans to get our pose and try a path based on that(depending on
-  // y, we can go to the other coral station)
+  // command to get us to the coral station closest to us
   public Command flypathToCoralStation() {
-    if (getState().Pose.getY() >= 4) {
-      if (getState().Pose.getX() >= 4.5) {
-        try {
-
-          // Load the path you want to follow using its name in the GUI
-          PathPlannerPath flypath = new PathPlannerPath(
-              blueFarBargeReefToCoralIntake,
-              constraints,
-              null, // The ideal starting state, this is only relevant for pre-planned paths, so can
-                    // be null for on-the-fly paths.
-              new GoalEndState(0.0, Rotation2d.fromDegrees(35)) // Goal end state. You can set a holonomic
-                                                                // rotation here. If using a differential
-                                                                // drivetrain, the rotation will have no
-                                                                // effect.
-          );
-          flypath.preventFlipping = true;
-
-          // Create a path following command using AutoBuilder.
-          return AutoBuilder.followPath(flypath);
-        } catch (Exception e) {
-          DriverStation.reportError("Big oops: " + e.getMessage(), e.getStackTrace());
-          return Commands.none();
-        }
-      } else {
-        try {
-
-          // Load the path you want to follow using its name in the GUI
-          PathPlannerPath flypath = new PathPlannerPath(
-              blueCloseBargeReefToCoralIntake,
-              constraints,
-              null, // The ideal starting state, this is only relevant for pre-planned paths, so can
-                    // be null for on-the-fly paths.
-              new GoalEndState(0.0, Rotation2d.fromDegrees(35)) // Goal end state. You can set a holonomic rotation
-                                                                // here. If using a differential drivetrain, the
-                                                                // rotation will have no effect.
-          );
-          flypath.preventFlipping = true;
-
-          // Create a path following command using AutoBuilder.
-          return AutoBuilder.followPath(flypath);
-        } catch (Exception e) {
-          DriverStation.reportError("Big oops: " + e.getMessage(), e.getStackTrace());
-          return Commands.none();
-        }
-      }
-    } else if (getState().Pose.getY() < 4) {
-      if (getState().Pose.getX() >= 4.5) {
-        try {
-
-          // Load the path you want to follow using its name in the GUI
-          PathPlannerPath flypath = new PathPlannerPath(
-              blueFarNONBargeReefToCoralIntake,
-              constraints,
-              null, // The ideal starting state, this is only relevant for pre-planned paths, so can
-                    // be null for on-the-fly paths.
-              new GoalEndState(0.0, Rotation2d.fromDegrees(145)) // Goal end state. You can set a holonomic rotation
-                                                                 // here. If using a differential drivetrain, the
-                                                                 // rotation will have no effect.
-          );
-          flypath.preventFlipping = true;
-
-          // Create a path following command using AutoBuilder.
-          return AutoBuilder.followPath(flypath);
-        } catch (Exception e) {
-          DriverStation.reportError("Big oops: " + e.getMessage(), e.getStackTrace());
-          return Commands.none();
-        }
-      } else {
-        try {
-
-          // Load the path you want to follow using its name in the GUI
-          PathPlannerPath flypath = new PathPlannerPath(
-              blueCloseNONBargeReefToCoralIntake,
-              constraints,
-              null, // The ideal starting state, this is only relevant for pre-planned paths, so can
-                    // be null for on-the-fly paths.
-              new GoalEndState(0.0, Rotation2d.fromDegrees(145)) // Goal end state. You can set a holonomic rotation
-                                                                 // here. If using a differential drivetrain, the
-                                                                 // rotation will have no effect.
-          );
-          flypath.preventFlipping = true;
-
-          // Create a path following command using AutoBuilder.
-          return AutoBuilder.followPath(flypath);
-        } catch (Exception e) {
-          DriverStation.reportError("Big oops: " + e.getMessage(), e.getStackTrace());
-          return Commands.none();
-        }
+    return Commands.defer(() -> {
+      var pose = getState().Pose;
+      return flypathToCoralStation(flyPathCache.getClosestStation(pose, isRedAlliance()), pose);
+    }, Set.of(this));
+  }
+
+  // command to get us to a specific coral station
+  public Command flypathToCoralStation(CoralStation station) {
+    return Commands.defer(() -> flypathToCoralStation(station, getState().Pose), Set.of(this));
+  }
+
+  private Command flypathToCoralStation(CoralStation station, Pose2d pose) {
+    try {
+      var flypath = flyPathCache.getPath(pose, getState().Speeds, station, isRedAlliance());
+      if (flypath == null) {
+        return Commands.none();
       }
-    } else {
+
+      // Create a path following command using AutoBuilder.
+      return AutoBuilder.followPath(flypath);
+    } catch (Exception e) {
+      DriverStation.reportError("Big oops: " + e.getMessage(), e.getStackTrace());
       return Commands.none();
     }
   }
 
-  public Double getMetersFromReef() {
-    return (alignmentLASER.getMeasurement().distance_mm / 1000.0);
+  // Pathfinding over the navgrid; the flow fields to every reef branch and
+  // coral station are built once at startup so a query only has to follow them
+  private FlowFieldPathfinder pathfinder;
+
+  // command to get us to a reef branch, see FieldGeometry.getReefBranchIndex
+  public Command pathfindToReefBranch(int branch) {
+    return Commands.defer(() -> followPathOrNone(
+        (pathfinder == null) ? null : pathfinder.getPathToReefBranch(getState().Pose, branch, isRedAlliance())),
+        Set.of(this));
+  }
+
+  // command to get us to the closest coral station without running into anything
+  public Command pathfindToCoralStation() {
+    return Commands.defer(() -> {
+      var pose = getState().Pose;
+      return followPathOrNone((pathfinder == null) ? null
+          : pathfinder.getPathToCoralStation(pose, flyPathCache.getClosestStation(pose, isRedAlliance()),
+              isRedAlliance()));
+    }, Set.of(this));
+  }
+
+  // command to get us to a coral station without running into anything
+  public Command pathfindToCoralStation(CoralStation station) {
+    return Commands.defer(() -> followPathOrNone(
+        (pathfinder == null) ? null : pathfinder.getPathToCoralStation(getState().Pose, station, isRedAlliance())),
+        Set.of(this));
+  }
+
+  // command to get us to our processor without running into anything
+  public Command pathfindToProcessor() {
+    return Commands.defer(() -> followPathOrNone(
+        (pathfinder == null) ? null : pathfinder.getPathToProcessor(getState().Pose, isRedAlliance())),
+        Set.of(this));
+  }
+
+  /**
+   * Does all the math of flying from a reef branch to the closest coral station
+   * and pathfinding back, without driving anywhere. Run while disabled so the
+   * JIT has compiled path generation and following before the first real path.
+   *
+   * @param branch Reef branch to start from, see FieldGeometry
+   */
+  public void warmUpPathing(int branch) {
+    if (m_robotConfig == null) {
+      return;
+    }
+
+    var pose = FieldGeometry.getBlueReefBranchPose(branch);
+    var speeds = new ChassisSpeeds();
+    var flypath = flyPathCache.getPath(pose, speeds, flyPathCache.getClosestStation(pose, false), false);
+    if (flypath != null) {
+      // Built and thrown away, never scheduled
+      AutoBuilder.followPath(flypath);
+
+      // Follow the path the way the command would, minus the setControl
+      var trajectory = flypath.generateTrajectory(speeds, pose.getRotation(), m_robotConfig);
+      int moduleCount = getModules().length;
+      var moduleStates = new SwerveModuleState[moduleCount];
+      for (int i = 0; i < moduleCount; ++i) {
+        moduleStates[i] = new SwerveModuleState();
+      }
+      var setpoint = new SwerveSetpoint(speeds, moduleStates, DriveFeedforwards.zeros(moduleCount));
+      for (double time = 0.0; time < trajectory.getTotalTimeSeconds(); time += kWarmUpSampleSeconds) {
+        var target = trajectory.sample(time);
+        var output = m_warmUpController.calculateRobotRelativeSpeeds(pose, target);
+        setpoint = m_setpointGenerator.generateSetpoint(setpoint, output, TimedRobot.kDefaultPeriod);
+        pose = target.pose;
+      }
+    }
+
+    if (pathfinder != null) {
+      pathfinder.getPathToReefBranch(pose, branch, false);
+    }
+  }
+
+  private Command followPathOrNone(PathPlannerPath path) {
+    return (path == null) ? Commands.none() : AutoBuilder.followPath(path);
+  }
+
+  public boolean isRedAlliance() {
+    return DriverStation.getAlliance().orElse(Alliance.Blue) == Alliance.Red;
+  }
+
+  // latest LASER reading from periodic, NaN if it doesn't have a valid one
+  public double getMetersFromReef() {
+    return distance;
   }
 
   public boolean alignLASERIsTriggered() {
-    Double metersFromReef = getMetersFromReef();
-    return (metersFromReef >= DrivetrainConstants.minMetersFromReef && metersFromReef <= DrivetrainConstants.maxMetersFromReef);
+    return reefDetected;
+  }
+
+  // command to line us up on the closest reef branch on the given side
+  public Command alignToReef(Direction side) {
+    return reefAlignController.align(side);
+  }
+
+  /**
+   * Drives field centric from the operator's perspective, going through the
+   * setpoint generator.
+   *
+   * @param velocityX Forward velocity away from the operator in m/s
+   * @param velocityY Velocity to the operator's left in m/s
+   * @param rotationalRate Counterclockwise rate in rad/s
+   */
+  public void driveFieldCentric(double velocityX, double velocityY, double rotationalRate) {
+    // Rotate into the robot frame by hand so teleop doesn't allocate every loop
+    var heading = getState().Pose.getRotation();
+    double cos = heading.getCos() * m_operatorForward.getCos() + heading.getSin() * m_operatorForward.getSin();
+    double sin = heading.getSin() * m_operatorForward.getCos() - heading.getCos() * m_operatorForward.getSin();
+    m_fieldCentricSpeeds.vxMetersPerSecond = velocityX * cos + velocityY * sin;
+    m_fieldCentricSpeeds.vyMetersPerSecond = -velocityX * sin + velocityY * cos;
+    m_fieldCentricSpeeds.omegaRadiansPerSecond = rotationalRate;
+    driveThroughSetpoint(m_fieldCentricSpeeds, TimedRobot.kDefaultPeriod, m_teleopApplyRobotSpeeds);
+  }
+
+  /**
+   * Drives robot centric, going through the setpoint generator, open loop like
+   * field centric driving.
+   *
+   * @param velocityX      Forward velocity in m/s
+   * @param velocityY      Velocity to the robot's left in m/s
+   * @param rotationalRate Counterclockwise rate in rad/s
+   */
+  public void driveRobotCentric(double velocityX, double velocityY, double rotationalRate) {
+    m_robotCentricSpeeds.vxMetersPerSecond = velocityX;
+    m_robotCentricSpeeds.vyMetersPerSecond = velocityY;
+    m_robotCentricSpeeds.omegaRadiansPerSecond = rotationalRate;
+    driveThroughSetpoint(m_robotCentricSpeeds, TimedRobot.kDefaultPeriod, m_teleopApplyRobotSpeeds);
+  }
+
+  /**
+   * Drives robot relative, going through the setpoint generator so no module
+   * is asked to accelerate or steer faster than the carpet allows.
+   *
+   * @param speeds Robot relative speeds we would like to be at
+   */
+  public void driveRobotRelative(ChassisSpeeds speeds) {
+    driveRobotRelative(speeds, TimedRobot.kDefaultPeriod);
+  }
+
+  /**
+   * Drives robot relative through the setpoint generator from a loop that
+   * doesn't run every 20 ms. Safe to call from a notifier.
+   *
+   * @param speeds        Robot relative speeds we would like to be at
+   * @param periodSeconds How often the caller runs
+   */
+  public void driveRobotRelative(ChassisSpeeds speeds, double periodSeconds) {
+    driveThroughSetpoint(speeds, periodSeconds, m_pathApplyRobotSpeeds);
+  }
+
+  /*
+   * PathPlanner's output is already limited, its trajectory was generated from
+   * the same robot config the setpoint generator uses. Running it through the
+   * generator again would make the robot lag the trajectory and throw away the
+   * trajectory's own wheel forces, so it goes straight to the modules.
+   */
+  private void drivePathOutput(ChassisSpeeds speeds, DriveFeedforwards feedforwards) {
+    synchronized (m_setpointLock) {
+      // Whatever drives through the generator next starts from the real modules
+      m_lastSetpointTime = 0.0;
+      setControl(m_pathApplyRobotSpeeds.withSpeeds(speeds)
+          .withWheelForceFeedforwardsX(feedforwards.robotRelativeForcesXNewtons())
+          .withWheelForceFeedforwardsY(feedforwards.robotRelativeForcesYNewtons()));
+    }
+  }
+
+  private void driveThroughSetpoint(ChassisSpeeds speeds, double periodSeconds,
+      SwerveRequest.ApplyRobotSpeeds request) {
+    synchronized (m_setpointLock) {
+      if (m_setpointGenerator == null) {
+        setControl(request.withSpeeds(speeds)
+            .withWheelForceFeedforwardsX(kZeroForces)
+            .withWheelForceFeedforwardsY(kZeroForces));
+        return;
+      }
+
+      // Start from where the modules really are if something else was driving
+      double now = Timer.getFPGATimestamp();
+      if (now - m_lastSetpointTime > 2 * TimedRobot.kDefaultPeriod) {
+        var state = getState();
+        m_previousSetpoint = new SwerveSetpoint(state.Speeds, state.ModuleStates,
+            DriveFeedforwards.zeros(state.ModuleStates.length));
+      }
+      m_lastSetpointTime = now;
+
+      m_previousSetpoint = m_setpointGenerator.generateSetpoint(m_previousSetpoint, speeds, periodSeconds);
+      setControl(request.withSpeeds(m_previousSetpoint.robotRelativeSpeeds())
+          .withWheelForceFeedforwardsX(m_previousSetpoint.feedforwards().robotRelativeForcesXNewtons())
+          .withWheelForceFeedforwardsY(m_previousSetpoint.feedforwards().robotRelativeForcesYNewtons()));
+    }
+  }
+
+  /**
+   * Stops driving right away instead of ramping down through the setpoint
+   * generator. The next setpoint starts from where the modules really are.
+   */
+  public void stopDriving() {
+    synchronized (m_setpointLock) {
+      m_lastSetpointTime = 0.0;
+      setControl(m_pathApplyRobotSpeeds.withSpeeds(kZeroSpeeds)
+          .withWheelForceFeedforwardsX(kZeroForces)
+          .withWheelForceFeedforwardsY(kZeroForces));
+    }
+  }
+
+  /**
+   * Adds a vision measurement to the Kalman Filter. This will correct the
+   * odometry pose estimate while still accounting for measurement noise.
+   *
+   * @param visionRobotPoseMeters The pose of the robot as measured by the vision
+   *                              camera.
+   * @param timestampSeconds      The timestamp of the vision measurement in
+   *                              seconds, in the FPGA timebase.
+   */
+  @Override
+  public void addVisionMeasurement(Pose2d visionRobotPoseMeters, double timestampSeconds) {
+    super.addVisionMeasurement(visionRobotPoseMeters, Utils.fpgaToCurrentTime(timestampSeconds));
+  }
+
+  /**
+   * Adds a vision measurement to the Kalman Filter. This will correct the
+   * odometry pose estimate while still accounting for measurement noise.
+   *
+   * @param visionRobotPoseMeters    The pose of the robot as measured by the
+   *                                 vision camera.
+   * @param timestampSeconds         The timestamp of the vision measurement in
+   *                                 seconds, in the FPGA timebase.
+   * @param visionMeasurementStdDevs Standard deviations of the vision pose
+   *                                 measurement in the form [x, y, theta]ᵀ, with
+   *                                 units in meters and radians.
+   */
+  @Override
+  public void addVisionMeasurement(Pose2d visionRobotPoseMeters, double timestampSeconds,
+      Matrix<N3, N1> visionMeasurementStdDevs) {
+    super.addVisionMeasurement(visionRobotPoseMeters, Utils.fpgaToCurrentTime(timestampSeconds),
+        visionMeasurementStdDevs);
   }
 
   public void configDrivetrainSubsys() {
     try {
       var config = RobotConfig.fromGUISettings();
+      m_robotConfig = config;
+      m_setpointGenerator = new SwerveSetpointGenerator(config, DrivetrainConstants.kMaxSteerVelocity);
 
       AutoBuilder.configure(
           () -> getState().Pose,
           this::resetPose,
           () -> getState().Speeds,
-          (speeds, feedforwards) -> setControl(
-              m_pathApplyRobotSpeeds.withSpeeds(speeds)
-                  .withWheelForceFeedforwardsX(feedforwards.robotRelativeForcesXNewtons())
-                  .withWheelForceFeedforwardsY(feedforwards.robotRelativeForcesYNewtons())),
-          new PPHolonomicDriveController(
-              new PIDConstants(10, 0, 0),
-              new PIDConstants(7, 0, 0)),
+          this::drivePathOutput,
+          new PPHolonomicDriveController(kTranslationPID, kRotationPID),
           config,
-          () -> DriverStation.getAlliance().orElse(Alliance.Blue) == Alliance.Red,
+          this::isRedAlliance,
           this);
+
+      flyPathCache.warmUp(config);
     } catch (Exception ex) {
       DriverStation.reportError("something may or may not be broken, idk", ex.getStackTrace());
     }
+
+    try {
+      pathfinder = new FlowFieldPathfinder();
+    } catch (Exception ex) {
+      DriverStation.reportError("Couldn't load the navgrid: " + ex.getMessage(), ex.getStackTrace());
+    }
   }
 }
\ No newline at end of file
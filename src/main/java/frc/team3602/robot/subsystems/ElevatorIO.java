@@ -0,0 +1,87 @@
+/*
+ * Copyright (C) 2025 Team 3602 All rights reserved. This work is
+ * licensed under the terms of the MIT license which can be found
+ * in the root directory of this project.
+ */
+
+package frc.team3602.robot.subsystems;
+
+import java.nio.ByteBuffer;
+
+import frc.team3602.robot.logging.LoggableInputs;
+
+/**
+ * Everything the elevator reads from and sends to its motors.
+ * <p>
+ * {@link ElevatorIOTalonFX} is the robot and {@link ElevatorIOSim} is the same
+ * motors driven by a physics sim. Replay uses these defaults, which do
+ * nothing, and the inputs come from the log.
+ */
+public interface ElevatorIO {
+  /** What the elevator saw this loop. */
+  class Inputs implements LoggableInputs {
+    /* Filled in by the subsystem, the height the commands last asked for */
+    public double goalInches = 0.0;
+    /* From the leader's rotor, up is positive */
+    public double heightInches = 0.0;
+    public double leaderVoltage = 0.0;
+    public double followerVoltage = 0.0;
+    public double leaderRotations = 0.0;
+    public double followerRotations = 0.0;
+
+    @Override
+    public String getTypeName() {
+      return "ElevatorInputs";
+    }
+
+    @Override
+    public String getSchema() {
+      return "double goalInches;double heightInches;double leaderVoltage;double followerVoltage;"
+          + "double leaderRotations;double followerRotations";
+    }
+
+    @Override
+    public int getSize() {
+      return 6 * Double.BYTES;
+    }
+
+    @Override
+    public void pack(ByteBuffer bb) {
+      bb.putDouble(goalInches);
+      bb.putDouble(heightInches);
+      bb.putDouble(leaderVoltage);
+      bb.putDouble(followerVoltage);
+      bb.putDouble(leaderRotations);
+      bb.putDouble(followerRotations);
+    }
+
+    @Override
+    public void unpack(ByteBuffer bb) {
+      goalInches = bb.getDouble();
+      heightInches = bb.getDouble();
+      leaderVoltage = bb.getDouble();
+      followerVoltage = bb.getDouble();
+      leaderRotations = bb.getDouble();
+      followerRotations = bb.getDouble();
+    }
+  }
+
+  /**
+   * @param inputs Inputs to read into, everything but the goal
+   */
+  default void updateInputs(Inputs inputs) {
+  }
+
+  /**
+   * @param volts Voltage for both motors, positive lowers the elevator
+   */
+  default void setVoltage(double volts) {
+  }
+
+  default void stop() {
+  }
+
+  /** Steps the physics sim one loop with the last output, sim only. */
+  default void updateSim() {
+  }
+}
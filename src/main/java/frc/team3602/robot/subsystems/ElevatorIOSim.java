@@ -0,0 +1,48 @@
+/*
+ * Copyright (C) 2025 Team 3602 All rights reserved. This work is
+ * licensed under the terms of the MIT license which can be found
+ * in the root directory of this project.
+ */
+
+package frc.team3602.robot.subsystems;
+
+import com.ctre.phoenix6.sim.TalonFXSimState;
+
+import edu.wpi.first.math.system.plant.DCMotor;
+import edu.wpi.first.math.util.Units;
+import edu.wpi.first.wpilibj.RobotController;
+import edu.wpi.first.wpilibj.TimedRobot;
+import edu.wpi.first.wpilibj.simulation.ElevatorSim;
+
+import frc.team3602.robot.Constants.ElevatorConstants;
+
+/**
+ * The elevator's TalonFXs driven by a physics sim, so the inputs are read from
+ * the rotor position exactly like they are on the robot.
+ */
+public class ElevatorIOSim extends ElevatorIOTalonFX {
+  private final TalonFXSimState simElevatorMotor = elevatorMotor.getSimState();
+  private final TalonFXSimState simElevatorFollower = elevatorFollower.getSimState();
+  private final ElevatorSim elevatorSim = new ElevatorSim(DCMotor.getKrakenX60(2), ElevatorConstants.gearing,
+      ElevatorConstants.kCarriageMassKg, Units.inchesToMeters(ElevatorConstants.drumDiameterInches / 2.0), 0.0,
+      ElevatorConstants.kMaxHeightMeters, true, 0.0);
+
+  @Override
+  public void updateSim() {
+    simElevatorMotor.setSupplyVoltage(RobotController.getBatteryVoltage());
+    simElevatorFollower.setSupplyVoltage(RobotController.getBatteryVoltage());
+
+    // Sim state is in the motor's uninverted frame, and since both motors are
+    // inverted, positive voltage and rotor rotation there raise the elevator
+    elevatorSim.setInput(simElevatorMotor.getMotorVoltage());
+    elevatorSim.update(TimedRobot.kDefaultPeriod);
+
+    double rotorRotations = Units.metersToInches(elevatorSim.getPositionMeters()) / kInchesPerRotorRotation;
+    double rotorRotationsPerSecond = Units.metersToInches(elevatorSim.getVelocityMetersPerSecond())
+        / kInchesPerRotorRotation;
+    simElevatorMotor.setRawRotorPosition(rotorRotations);
+    simElevatorMotor.setRotorVelocity(rotorRotationsPerSecond);
+    simElevatorFollower.setRawRotorPosition(rotorRotations);
+    simElevatorFollower.setRotorVelocity(rotorRotationsPerSecond);
+  }
+}
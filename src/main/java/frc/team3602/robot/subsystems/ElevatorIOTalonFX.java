@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) 2025 Team 3602 All rights reserved. This work is
+ * licensed under the terms of the MIT license which can be found
+ * in the root directory of this project.
+ */
+
+package frc.team3602.robot.subsystems;
+
+import com.ctre.phoenix6.BaseStatusSignal;
+import com.ctre.phoenix6.StatusSignal;
+import com.ctre.phoenix6.configs.TalonFXConfiguration;
+import com.ctre.phoenix6.controls.Follower;
+import com.ctre.phoenix6.hardware.TalonFX;
+import com.ctre.phoenix6.signals.InvertedValue;
+import com.ctre.phoenix6.signals.NeutralModeValue;
+
+import edu.wpi.first.units.measure.Angle;
+import edu.wpi.first.units.measure.Voltage;
+
+import frc.team3602.robot.DeviceConfigurator;
+import frc.team3602.robot.Constants.ElevatorConstants;
+
+/** The elevator's two Krakens. */
+public class ElevatorIOTalonFX implements ElevatorIO {
+  // Inches of travel per rotor rotation, the drum through the gearbox
+  protected static final double kInchesPerRotorRotation = Math.PI * ElevatorConstants.drumDiameterInches
+      / ElevatorConstants.gearing;
+
+  // Motors
+  protected final TalonFX elevatorMotor = new TalonFX(ElevatorConstants.kElevatorMotorId);
+  protected final TalonFX elevatorFollower = new TalonFX(ElevatorConstants.kElevatorFollowerId);
+
+  private final StatusSignal<Angle> rotorPosition = elevatorMotor.getRotorPosition();
+  private final StatusSignal<Angle> leaderPosition = elevatorMotor.getPosition();
+  private final StatusSignal<Angle> followerPosition = elevatorFollower.getPosition();
+  private final StatusSignal<Voltage> leaderVoltage = elevatorMotor.getMotorVoltage();
+  private final StatusSignal<Voltage> followerVoltage = elevatorFollower.getMotorVoltage();
+  private final BaseStatusSignal[] signals = { rotorPosition, leaderPosition, followerPosition, leaderVoltage,
+      followerVoltage };
+
+  public ElevatorIOTalonFX() {
+    // Zero encoder
+    elevatorMotor.setPosition(0.0);
+
+    // Ensure our follower is following the respective leader and opposing it's
+    // direction
+    elevatorFollower.setControl(new Follower(elevatorMotor.getDeviceID(), false));
+
+    // Both motors get the same config, applied with everything else at startup
+    var motorConfig = new TalonFXConfiguration();
+
+    motorConfig.CurrentLimits.StatorCurrentLimit = 35;
+    motorConfig.CurrentLimits.StatorCurrentLimitEnable = true;
+
+    motorConfig.MotorOutput.Inverted = InvertedValue.Clockwise_Positive;
+    motorConfig.MotorOutput.NeutralMode = NeutralModeValue.Brake;
+
+    DeviceConfigurator.add("Elevator Motor", elevatorMotor, motorConfig);
+    DeviceConfigurator.add("Elevator Follower", elevatorFollower, motorConfig);
+  }
+
+  @Override
+  public void updateInputs(Inputs inputs) {
+    BaseStatusSignal.refreshAll(signals);
+    inputs.heightInches = (rotorPosition.getValueAsDouble() * kInchesPerRotorRotation) * -1.0;
+    inputs.leaderVoltage = leaderVoltage.getValueAsDouble();
+    inputs.followerVoltage = followerVoltage.getValueAsDouble();
+    inputs.leaderRotations = leaderPosition.getValueAsDouble();
+    inputs.followerRotations = followerPosition.getValueAsDouble();
+  }
+
+  @Override
+  public void setVoltage(double volts) {
+    elevatorMotor.setVoltage(volts);
+  }
+
+  @Override
+  public void stop() {
+    elevatorMotor.stopMotor();
+    elevatorFollower.stopMotor();
+  }
+}
@@ -6,20 +6,10 @@
 
 package frc.team3602.robot.subsystems;
 
-import com.ctre.phoenix6.Utils;
-import com.ctre.phoenix6.configs.CurrentLimitsConfigs;
-import com.ctre.phoenix6.configs.MotorOutputConfigs;
-import com.ctre.phoenix6.controls.Follower;
-import com.ctre.phoenix6.hardware.TalonFX;
-import com.ctre.phoenix6.signals.InvertedValue;
-import com.ctre.phoenix6.signals.NeutralModeValue;
-
 import edu.wpi.first.math.MathUtil;
 import edu.wpi.first.math.controller.ElevatorFeedforward;
 import edu.wpi.first.math.controller.PIDController;
-import edu.wpi.first.math.system.plant.DCMotor;
-import edu.wpi.first.wpilibj.TimedRobot;
-import edu.wpi.first.wpilibj.simulation.ElevatorSim;
+import edu.wpi.first.math.util.Units;
 import edu.wpi.first.wpilibj.smartdashboard.Mechanism2d;
 import edu.wpi.first.wpilibj.smartdashboard.MechanismLigament2d;
 import edu.wpi.first.wpilibj.smartdashboard.MechanismRoot2d;
@@ -29,15 +19,18 @@ import edu.wpi.first.wpilibj.util.Color8Bit;
 import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
 
+import frc.team3602.robot.LoopGovernor;
+import frc.team3602.robot.LoopGovernor.Work;
+import frc.team3602.robot.logging.InputLog;
+import frc.team3602.robot.logging.InputLog.LoggedInputs;
+import frc.team3602.robot.logging.InputLog.LoggedOutput;
 import frc.team3602.robot.Constants.ElevatorConstants;
 
 public class ElevatorSubsystem extends SubsystemBase {
-  // Motors
-  public final TalonFX elevatorMotor = new TalonFX(ElevatorConstants.kElevatorMotorId);
-  public final TalonFX elevatorFollower = new TalonFX(ElevatorConstants.kElevatorFollowerId);
-
-  // Encoders, Simulated
-  private double simElevatorEncoder;
+  private final ElevatorIO io;
+  private final ElevatorIO.Inputs inputs = new ElevatorIO.Inputs();
+  private final LoggedInputs loggedInputs = InputLog.inputs("Elevator", inputs);
+  private final LoggedOutput voltageOutput = InputLog.output("Elevator/Voltage");
 
   // Set point of elevator
   public double height = 0.0;
@@ -49,35 +42,23 @@ public class ElevatorSubsystem extends SubsystemBase {
       ElevatorConstants.KG, ElevatorConstants.KV, ElevatorConstants.KA);
 
   private double totalEffort = 0.0;
+  private double pidEffort = 0.0;
 
-  // Controls, Simulated
-  private final PIDController simElevatorController = new PIDController(ElevatorConstants.simKP,
-      ElevatorConstants.simKI, ElevatorConstants.simKD);
-  private final ElevatorFeedforward simElevatorFeedforward = new ElevatorFeedforward(ElevatorConstants.simKS,
-      ElevatorConstants.simKG, ElevatorConstants.simKV, ElevatorConstants.simKA);
-
-  private double simTotalEffort = 0.0;
-
-  // Simulation
-  private final ElevatorSim elevatorSim = new ElevatorSim(ElevatorConstants.simKV, ElevatorConstants.simKA,
-      DCMotor.getKrakenX60(2), 1, ElevatorConstants.kMaxHeightMeters, true, 0.1);
+  // Visualization
   public final Mechanism2d elevatorSimMech = new Mechanism2d(1.5, 1.5);
   private final MechanismRoot2d elevatorRoot = elevatorSimMech.getRoot("Elevator Root", 0.75, 0.1);
+  private static final double kElevatorVizBaseLength = 0.6;
   public final MechanismLigament2d elevatorViz = elevatorRoot
-      .append(new MechanismLigament2d("Elevator Ligament", 0.6, 90, 70.0, new Color8Bit(Color.kBlanchedAlmond)));
-
-  // STUFF FOR 3D SIMULATIONS IN ADVANTAGE SCOPE, not fully functional
-  // public Translation3d translation;
-  // public Pose3d ElevatorPose;
+      .append(new MechanismLigament2d("Elevator Ligament", kElevatorVizBaseLength, 90, 70.0,
+          new Color8Bit(Color.kBlanchedAlmond)));
 
-  // StructPublisher<Pose3d> publisher = NetworkTableInstance.getDefault()
-  // .getStructTopic("Elevator Pose", Pose3d.struct).publish();
+  /**
+   * @param io Motors on the robot, the sim, or nothing when replaying a log
+   */
+  public ElevatorSubsystem(ElevatorIO io) {
+    this.io = io;
 
-  public ElevatorSubsystem() {
-    // Zero encoder
-    elevatorMotor.setPosition(0.0);
-
-    configElevatorSubsys();
+    SmartDashboard.putData("Elevator Viz", elevatorSimMech);
   }
 
   // COMMANDS TO REFERENCE
@@ -89,14 +70,13 @@ public class ElevatorSubsystem extends SubsystemBase {
 
   public Command testElevator(double voltage) {
     return runOnce(() -> {
-      elevatorMotor.setVoltage(voltage);
+      io.setVoltage(voltage);
     });
   }
 
   public Command stopElevator() {
     return runOnce(() -> {
-      elevatorMotor.stopMotor();
-      elevatorFollower.stopMotor();
+      io.stop();
     });
   }
 
@@ -104,78 +84,61 @@ public class ElevatorSubsystem extends SubsystemBase {
 
   // CALCULATIONS
   public Double getEncoder() {
-    return (elevatorMotor.getRotorPosition().getValueAsDouble() * (Math.PI * 2.15) / 12.0) * -1.0;
+    return inputs.heightInches;
   }
 
-  public boolean isNearGoal() {
-    return MathUtil.isNear(height, getEncoder(), ElevatorConstants.tolerance);
+  /**
+   * @return Height in inches as of this loop's periodic, doesn't touch CAN
+   */
+  public double getHeightInches() {
+    return inputs.heightInches;
   }
 
-  public double simGetEffort() {
-    return simTotalEffort = ((simElevatorFeedforward.calculate(0, 0))
-        + (simElevatorController.calculate(simElevatorEncoder, height)));
+  public boolean isNearGoal() {
+    return MathUtil.isNear(height, inputs.heightInches, ElevatorConstants.tolerance);
   }
 
   public double getEffort() {
-    return totalEffort = ((elevatorFeedforward.calculate(0, 0))
-        + (elevatorController.calculate(getEncoder(), height)));
+    pidEffort = elevatorController.calculate(inputs.heightInches, height);
+    return totalEffort = ((elevatorFeedforward.calculate(0, 0)) + pidEffort);
   }
 
   @Override
   public void periodic() {
-    if (Utils.isSimulation()) {
-      simElevatorEncoder = elevatorViz.getLength();
-      simTotalEffort = simGetEffort();
-      elevatorMotor.setVoltage(simTotalEffort);
-    } else {
-      totalEffort = getEffort();
-      elevatorMotor.setVoltage(-totalEffort);
+    // Everything below only depends on the inputs, so replaying them gives
+    // back the same outputs
+    io.updateInputs(inputs);
+    inputs.goalInches = height;
+    loggedInputs.process();
+    height = inputs.goalInches;
+
+    totalEffort = getEffort();
+    io.setVoltage(-totalEffort);
+    voltageOutput.record(-totalEffort);
+
+    if (!LoopGovernor.isEnabled(Work.Dashboard)) {
+      return;
     }
-
-    // Update Simulation
-    elevatorSim.setInput(elevatorMotor.getMotorVoltage().getValueAsDouble());
-    elevatorSim.update(TimedRobot.kDefaultPeriod);
-    elevatorViz.setLength(elevatorViz.getLength() + (elevatorMotor.getMotorVoltage().getValueAsDouble() * 0.2));
-
-    SmartDashboard.putNumber("Elevator Motor Output", elevatorMotor.getMotorVoltage().getValueAsDouble());
-    SmartDashboard.putNumber("Elevator Follower Output", elevatorFollower.getMotorVoltage().getValueAsDouble());
+    SmartDashboard.putNumber("Elevator Motor Output", inputs.leaderVoltage);
+    SmartDashboard.putNumber("Elevator Follower Output", inputs.followerVoltage);
     SmartDashboard.putNumber("Elevator FFE Effort", elevatorFeedforward.calculate(0, 0));
-    SmartDashboard.putNumber("Elevator PID Effort", elevatorController.calculate(getEncoder(), height));
+    SmartDashboard.putNumber("Elevator PID Effort", pidEffort);
 
-    // SmartDashboard.putNumber("Sim Elevator Motor Output",
-    // simElevatorMotor.getMotorVoltage());
-    // SmartDashboard.putNumber("Sim Elevator Encoder Inches", simElevatorEncoder);
-    SmartDashboard.putNumber("Motor Encoder", elevatorMotor.getPosition().getValueAsDouble());
-    SmartDashboard.putNumber("Follower Motor Encoder", elevatorFollower.getPosition().getValueAsDouble());
+    SmartDashboard.putNumber("Motor Encoder", inputs.leaderRotations);
+    SmartDashboard.putNumber("Follower Motor Encoder", inputs.followerRotations);
 
     SmartDashboard.putNumber("Elevator Set Height", height);
 
-    SmartDashboard.putNumber("Elevator Encoder", getEncoder());
+    SmartDashboard.putNumber("Elevator Encoder", inputs.heightInches);
   }
 
-  private void configElevatorSubsys() {
-    // Ensure our follower is following the respective leader and opposing it's
-    // direction
-    elevatorFollower.setControl(new Follower(elevatorMotor.getDeviceID(), false));
-
-    var motorConfigs = new MotorOutputConfigs();
-    var limitConfigs = new CurrentLimitsConfigs();
-
-    limitConfigs.StatorCurrentLimit = 35;
-    limitConfigs.StatorCurrentLimitEnable = true;
-
-    elevatorFollower.getConfigurator().apply(limitConfigs);
-    elevatorMotor.getConfigurator().apply(limitConfigs);
-
-    motorConfigs.Inverted = InvertedValue.Clockwise_Positive;
-    motorConfigs.NeutralMode = NeutralModeValue.Brake;
-    elevatorFollower.getConfigurator().apply(motorConfigs);
-
-    motorConfigs.Inverted = InvertedValue.Clockwise_Positive;
-    motorConfigs.NeutralMode = NeutralModeValue.Brake;
-    elevatorMotor.getConfigurator().apply(motorConfigs);
-
-    SmartDashboard.putData("Elevator Viz", elevatorSimMech);
+  /** Moves the Mechanism2d to the last height we read. */
+  public void updateViz() {
+    elevatorViz.setLength(kElevatorVizBaseLength + Units.inchesToMeters(inputs.heightInches));
+  }
 
+  @Override
+  public void simulationPeriodic() {
+    io.updateSim();
   }
-}
\ No newline at end of file
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright (C) 2025 Team 3602 All rights reserved. This work is
+ * licensed under the terms of the MIT license which can be found
+ * in the root directory of this project.
+ */
+
+package frc.team3602.robot.subsystems;
+
+import java.nio.ByteBuffer;
+
+import frc.team3602.robot.logging.LoggableInputs;
+
+/**
+ * Everything the intake reads from and sends to its motor and coral sensor.
+ * <p>
+ * {@link IntakeIOTalonFX} is the robot and {@link IntakeIOSim} adds a
+ * simulated coral for the sensor to see. Replay uses these defaults, which do
+ * nothing, and the inputs come from the log.
+ */
+public interface IntakeIO {
+    /** What the intake saw this loop. */
+    class Inputs implements LoggableInputs {
+        /* Filled in by the subsystem, the speed the commands last asked for */
+        public double goalPercent = 0.0;
+        public double motorVoltage = 0.0;
+        /* If the LaserCAN sees a coral */
+        public boolean sensorTriggered = false;
+
+        @Override
+        public String getTypeName() {
+            return "IntakeInputs";
+        }
+
+        @Override
+        public String getSchema() {
+            return "double goalPercent;double motorVoltage;bool sensorTriggered";
+        }
+
+        @Override
+        public int getSize() {
+            return 2 * Double.BYTES + 1;
+        }
+
+        @Override
+        public void pack(ByteBuffer bb) {
+            bb.putDouble(goalPercent);
+            bb.putDouble(motorVoltage);
+            bb.put((byte) (sensorTriggered ? 1 : 0));
+        }
+
+        @Override
+        public void unpack(ByteBuffer bb) {
+            goalPercent = bb.getDouble();
+            motorVoltage = bb.getDouble();
+            sensorTriggered = bb.get() != 0;
+        }
+    }
+
+    /**
+     * @param inputs Inputs to read into, everything but the goal
+     */
+    default void updateInputs(Inputs inputs) {
+    }
+
+    /**
+     * @param percent Output from -1 to 1, negative pulls coral in
+     */
+    default void setPercent(double percent) {
+    }
+
+    default void stop() {
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright (C) 2025 Team 3602 All rights reserved. This work is
+ * licensed under the terms of the MIT license which can be found
+ * in the root directory of this project.
+ */
+
+package frc.team3602.robot.subsystems;
+
+import edu.wpi.first.wpilibj.TimedRobot;
+import frc.team3602.robot.Constants.IntakeConstants;
+
+/**
+ * The intake's TalonFX with a simulated coral standing in for the LaserCAN.
+ */
+public class IntakeIOSim extends IntakeIOTalonFX {
+    private double percent = 0.0;
+
+    // How far the simulated coral has been pushed through the intake, in
+    // seconds at full speed. We start with one preloaded in front of the sensor
+    private double simCoralTravel = IntakeConstants.simCoralSensedAt;
+
+    @Override
+    public void updateInputs(Inputs inputs) {
+        super.updateInputs(inputs);
+
+        // Push the coral through, once it's out we're empty until we intake
+        // another one
+        simCoralTravel = Math.max(simCoralTravel - percent * TimedRobot.kDefaultPeriod, 0.0);
+        if (simCoralTravel >= IntakeConstants.simCoralGoneAt) {
+            simCoralTravel = 0.0;
+        }
+        inputs.sensorTriggered = simCoralTravel >= IntakeConstants.simCoralSensedAt
+                && simCoralTravel < IntakeConstants.simCoralGoneAt;
+    }
+
+    @Override
+    public void setPercent(double percent) {
+        this.percent = percent;
+        super.setPercent(percent);
+    }
+
+    @Override
+    public void stop() {
+        percent = 0.0;
+        super.stop();
+    }
+}
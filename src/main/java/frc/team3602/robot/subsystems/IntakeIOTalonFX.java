@@ -0,0 +1,55 @@
+/*
+ * Copyright (C) 2025 Team 3602 All rights reserved. This work is
+ * licensed under the terms of the MIT license which can be found
+ * in the root directory of this project.
+ */
+
+package frc.team3602.robot.subsystems;
+
+import com.ctre.phoenix6.StatusSignal;
+import com.ctre.phoenix6.configs.TalonFXConfiguration;
+import com.ctre.phoenix6.hardware.TalonFX;
+import com.ctre.phoenix6.signals.NeutralModeValue;
+
+import au.grapplerobotics.LaserCan;
+import edu.wpi.first.units.measure.Voltage;
+import frc.team3602.robot.DeviceConfigurator;
+import frc.team3602.robot.Constants.IntakeConstants;
+
+/** The intake's Falcon and the LaserCAN that watches for coral. */
+public class IntakeIOTalonFX implements IntakeIO {
+    // Motors
+    private final TalonFX intakeMotor = new TalonFX(IntakeConstants.kIntakeMotorId);
+    private final StatusSignal<Voltage> motorVoltage = intakeMotor.getMotorVoltage();
+
+    private final LaserCan laser = new LaserCan(31);
+
+    public IntakeIOTalonFX() {
+        // Motor configs
+        var motorConfig = new TalonFXConfiguration();
+
+        motorConfig.CurrentLimits.StatorCurrentLimit = 30;
+        motorConfig.CurrentLimits.StatorCurrentLimitEnable = true;
+
+        motorConfig.MotorOutput.NeutralMode = NeutralModeValue.Brake;
+        DeviceConfigurator.add("Intake Motor", intakeMotor, motorConfig);
+    }
+
+    @Override
+    public void updateInputs(Inputs inputs) {
+        inputs.motorVoltage = motorVoltage.refresh().getValueAsDouble();
+
+        LaserCan.Measurement laserMeasurement = laser.getMeasurement();
+        inputs.sensorTriggered = (laserMeasurement != null && laserMeasurement.distance_mm < 50.0);
+    }
+
+    @Override
+    public void setPercent(double percent) {
+        intakeMotor.set(percent);
+    }
+
+    @Override
+    public void stop() {
+        intakeMotor.stopMotor();
+    }
+}
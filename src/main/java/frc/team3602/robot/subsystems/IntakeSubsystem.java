@@ -8,15 +8,6 @@ package frc.team3602.robot.subsystems;
 
 import java.util.function.DoubleSupplier;
 
-import com.ctre.phoenix6.Utils;
-import com.ctre.phoenix6.configs.CurrentLimitsConfigs;
-import com.ctre.phoenix6.configs.MotorOutputConfigs;
-import com.ctre.phoenix6.hardware.TalonFX;
-import com.ctre.phoenix6.signals.NeutralModeValue;
-
-import au.grapplerobotics.LaserCan;
-import edu.wpi.first.math.system.plant.DCMotor;
-import edu.wpi.first.wpilibj.simulation.SingleJointedArmSim;
 import edu.wpi.first.wpilibj.smartdashboard.MechanismLigament2d;
 import edu.wpi.first.wpilibj.smartdashboard.MechanismRoot2d;
 import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
@@ -24,78 +15,104 @@ import edu.wpi.first.wpilibj.util.Color;
 import edu.wpi.first.wpilibj.util.Color8Bit;
 import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
-import frc.team3602.robot.Constants.IntakeConstants;
+import frc.team3602.robot.LoopGovernor;
+import frc.team3602.robot.LoopGovernor.Work;
+import frc.team3602.robot.logging.InputLog;
+import frc.team3602.robot.logging.InputLog.LoggedInputs;
+import frc.team3602.robot.logging.InputLog.LoggedOutput;
 
 public class IntakeSubsystem extends SubsystemBase {
-    // Motors
-    private final TalonFX intakeMotor = new TalonFX(IntakeConstants.kIntakeMotorId);
+    private final IntakeIO io;
+    private final IntakeIO.Inputs inputs = new IntakeIO.Inputs();
+    private final LoggedInputs loggedInputs = InputLog.inputs("Intake", inputs);
+    private final LoggedOutput percentOutput = InputLog.output("Intake/Percent");
 
     private double setSpeed;
 
-    private final LaserCan laser = new LaserCan(31);
-
-    // Simulation
-    private final SingleJointedArmSim intakeSim = new SingleJointedArmSim(DCMotor.getFalcon500(1), 1, 0.001, 0.0, 0.0,
-            0.0, false, 0.0);
+    // Visualization
     private final MechanismRoot2d intakeRoot;
     private final MechanismLigament2d intakeViz;
     private DoubleSupplier elevatorVizLength;
-    private DoubleSupplier pivotSimAngleRads;
-
-    public IntakeSubsystem(MechanismRoot2d intakeWheelRoot, DoubleSupplier elevatorVizLength,
-            DoubleSupplier pivotSimAngleRads) {
-        // Motor configs
-        var motorConfigs = new MotorOutputConfigs();
-        var limitConfigs = new CurrentLimitsConfigs();
-
-        limitConfigs.StatorCurrentLimit = 30;
-        limitConfigs.StatorCurrentLimitEnable = true;
+    private DoubleSupplier pivotAngleRads;
+
+    // How far the wheel has spun in the viz, in degrees
+    private double rollerDegrees = 0.0;
+
+    /**
+     * @param io                Motor and sensor on the robot, the sim, or
+     *                          nothing when replaying a log
+     * @param intakeWheelRoot   Where the wheel sits in the elevator's viz
+     * @param elevatorVizLength Length of the elevator in the viz
+     * @param pivotAngleRads    Pivot angle the wheel swings with
+     */
+    public IntakeSubsystem(IntakeIO io, MechanismRoot2d intakeWheelRoot, DoubleSupplier elevatorVizLength,
+            DoubleSupplier pivotAngleRads) {
+        this.io = io;
 
-        intakeMotor.getConfigurator().apply(limitConfigs);
-
-        motorConfigs.NeutralMode = NeutralModeValue.Brake;
-        intakeMotor.getConfigurator().apply(motorConfigs);
         // Simulation Initiation
         this.intakeRoot = intakeWheelRoot;
         this.intakeViz = this.intakeRoot.append(
                 new MechanismLigament2d("intake Wheel Ligament", 0.05, 70, 10.0, new Color8Bit(Color.kSpringGreen)));
         this.elevatorVizLength = elevatorVizLength;
-        this.pivotSimAngleRads = pivotSimAngleRads;
+        this.pivotAngleRads = pivotAngleRads;
     }
 
     /* Fundamental Commands */
     public Command runIntake(Double speed) {
         return runEnd(() -> {
             setSpeed = -speed;
-            intakeMotor.set(-speed);
+            io.setPercent(-speed);
         }, () -> {
             setSpeed = 0.0;
-            intakeMotor.set(0.0);
+            io.setPercent(0.0);
         });
     }
 
     public Command stopIntake() {
         return runOnce(() -> {
             setSpeed = 0.0;
-            intakeMotor.stopMotor();
+            io.stop();
         });
     }
 
+    public boolean isRunning() {
+        return setSpeed != 0.0;
+    }
+
+    /**
+     * @return If the sensor saw a coral as of this loop's periodic
+     */
     public boolean sensorIsTriggered() {
-        LaserCan.Measurement laserMeasurement = laser.getMeasurement();
-        return (laserMeasurement.distance_mm < 50.0);
+        return inputs.sensorTriggered;
     }
 
     public void periodic() {
-        if (Utils.isSimulation()) {
-            // Updating Simulation
-            intakeViz.setAngle(intakeViz.getAngle() + (intakeMotor.getMotorVoltage().getValueAsDouble()));
-            intakeRoot.setPosition(0.75 + (0.4 * Math.cos(pivotSimAngleRads.getAsDouble())),
-                    (elevatorVizLength.getAsDouble()) + (0.4 * Math.sin(pivotSimAngleRads.getAsDouble())));
-        }
+        // Everything below only depends on the inputs, so replaying them gives
+        // back the same outputs. The commands set the motor right away too,
+        // this keeps it where they left it
+        io.updateInputs(inputs);
+        inputs.goalPercent = setSpeed;
+        loggedInputs.process();
+        setSpeed = inputs.goalPercent;
+
+        io.setPercent(setSpeed);
+        percentOutput.record(setSpeed);
+
+        // Updating Simulation
+        rollerDegrees += inputs.motorVoltage;
 
         // Log Values
-        SmartDashboard.putNumber("intakeMotor Voltage", intakeMotor.getMotorVoltage().getValueAsDouble());
+        if (!LoopGovernor.isEnabled(Work.Dashboard)) {
+            return;
+        }
+        SmartDashboard.putNumber("intakeMotor Voltage", inputs.motorVoltage);
         SmartDashboard.putNumber("intake set speed", setSpeed);
     }
+
+    /** Moves the Mechanism2d to follow the pivot. */
+    public void updateViz() {
+        intakeViz.setAngle(rollerDegrees);
+        intakeRoot.setPosition(0.75 + (0.4 * Math.cos(pivotAngleRads.getAsDouble())),
+                (elevatorVizLength.getAsDouble()) + (0.4 * Math.sin(pivotAngleRads.getAsDouble())));
+    }
 }
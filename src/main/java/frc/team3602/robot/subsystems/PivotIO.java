@@ -0,0 +1,74 @@
+/*
+ * Copyright (C) 2025 Team 3602 All rights reserved. This work is
+ * licensed under the terms of the MIT license which can be found
+ * in the root directory of this project.
+ */
+
+package frc.team3602.robot.subsystems;
+
+import java.nio.ByteBuffer;
+
+import frc.team3602.robot.logging.LoggableInputs;
+
+/**
+ * Everything the pivot reads from and sends to its motor and CANcoder.
+ * <p>
+ * {@link PivotIOTalonFX} is the robot and {@link PivotIOSim} is the same
+ * devices driven by a physics sim. Replay uses these defaults, which do
+ * nothing, and the inputs come from the log.
+ */
+public interface PivotIO {
+    /** What the pivot saw this loop. */
+    class Inputs implements LoggableInputs {
+        /* Filled in by the subsystem, the angle the commands last asked for */
+        public double goalDegrees = 0.0;
+        /* From the CANcoder, offset already taken out */
+        public double angleDegrees = 0.0;
+        public double motorVoltage = 0.0;
+
+        @Override
+        public String getTypeName() {
+            return "PivotInputs";
+        }
+
+        @Override
+        public String getSchema() {
+            return "double goalDegrees;double angleDegrees;double motorVoltage";
+        }
+
+        @Override
+        public int getSize() {
+            return 3 * Double.BYTES;
+        }
+
+        @Override
+        public void pack(ByteBuffer bb) {
+            bb.putDouble(goalDegrees);
+            bb.putDouble(angleDegrees);
+            bb.putDouble(motorVoltage);
+        }
+
+        @Override
+        public void unpack(ByteBuffer bb) {
+            goalDegrees = bb.getDouble();
+            angleDegrees = bb.getDouble();
+            motorVoltage = bb.getDouble();
+        }
+    }
+
+    /**
+     * @param inputs Inputs to read into, everything but the goal
+     */
+    default void updateInputs(Inputs inputs) {
+    }
+
+    default void setVoltage(double volts) {
+    }
+
+    default void stop() {
+    }
+
+    /** Steps the physics sim one loop with the last output, sim only. */
+    default void updateSim() {
+    }
+}
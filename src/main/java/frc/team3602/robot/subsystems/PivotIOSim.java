@@ -0,0 +1,49 @@
+/*
+ * Copyright (C) 2025 Team 3602 All rights reserved. This work is
+ * licensed under the terms of the MIT license which can be found
+ * in the root directory of this project.
+ */
+
+package frc.team3602.robot.subsystems;
+
+import com.ctre.phoenix6.sim.CANcoderSimState;
+import com.ctre.phoenix6.sim.TalonFXSimState;
+
+import edu.wpi.first.math.system.plant.DCMotor;
+import edu.wpi.first.math.util.Units;
+import edu.wpi.first.wpilibj.RobotController;
+import edu.wpi.first.wpilibj.TimedRobot;
+import edu.wpi.first.wpilibj.simulation.SingleJointedArmSim;
+
+import frc.team3602.robot.Constants.PivotConstants;
+
+/**
+ * The pivot's TalonFX and CANcoder driven by an arm sim, so the angle is read
+ * from the CANcoder exactly like it is on the robot.
+ */
+public class PivotIOSim extends PivotIOTalonFX {
+    private final TalonFXSimState simPivotMotor = pivotMotor.getSimState();
+    private final CANcoderSimState simPivotEncoder = pivotEncoder.getSimState();
+    private final SingleJointedArmSim pivotSim = new SingleJointedArmSim(DCMotor.getFalcon500(1),
+            PivotConstants.gearing, SingleJointedArmSim.estimateMOI(PivotConstants.lengthMeters, PivotConstants.massKg),
+            PivotConstants.lengthMeters, Units.degreesToRadians(PivotConstants.simMinAngle),
+            Units.degreesToRadians(PivotConstants.simMaxAngle), true, Units.degreesToRadians(PivotConstants.stowAngle));
+
+    @Override
+    public void updateSim() {
+        simPivotMotor.setSupplyVoltage(RobotController.getBatteryVoltage());
+        simPivotEncoder.setSupplyVoltage(RobotController.getBatteryVoltage());
+
+        pivotSim.setInput(simPivotMotor.getMotorVoltage());
+        pivotSim.update(TimedRobot.kDefaultPeriod);
+
+        // The CANcoder is on the pivot shaft and reads the angle plus the offset,
+        // the motor turns gearing times as far
+        double pivotRotations = Units.radiansToRotations(pivotSim.getAngleRads());
+        double pivotRotationsPerSecond = Units.radiansToRotations(pivotSim.getVelocityRadPerSec());
+        simPivotEncoder.setRawPosition(pivotRotations + PivotConstants.encoderOffsetDegrees / 360.0);
+        simPivotEncoder.setVelocity(pivotRotationsPerSecond);
+        simPivotMotor.setRawRotorPosition(pivotRotations * PivotConstants.gearing);
+        simPivotMotor.setRotorVelocity(pivotRotationsPerSecond * PivotConstants.gearing);
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright (C) 2025 Team 3602 All rights reserved. This work is
+ * licensed under the terms of the MIT license which can be found
+ * in the root directory of this project.
+ */
+
+package frc.team3602.robot.subsystems;
+
+import com.ctre.phoenix6.BaseStatusSignal;
+import com.ctre.phoenix6.StatusSignal;
+import com.ctre.phoenix6.configs.CANcoderConfiguration;
+import com.ctre.phoenix6.configs.TalonFXConfiguration;
+import com.ctre.phoenix6.hardware.CANcoder;
+import com.ctre.phoenix6.hardware.TalonFX;
+import com.ctre.phoenix6.signals.NeutralModeValue;
+
+import edu.wpi.first.units.measure.Angle;
+import edu.wpi.first.units.measure.Voltage;
+
+import frc.team3602.robot.DeviceConfigurator;
+import frc.team3602.robot.Constants.PivotConstants;
+
+/** The pivot's Falcon and the CANcoder on its shaft. */
+public class PivotIOTalonFX implements PivotIO {
+
+    // Motors
+    protected final TalonFX pivotMotor = new TalonFX(PivotConstants.kPivotMotorId);
+
+    // Encoders
+    protected final CANcoder pivotEncoder = new CANcoder(PivotConstants.kPivotEncoderId);
+
+    private final StatusSignal<Angle> absolutePosition = pivotEncoder.getAbsolutePosition();
+    private final StatusSignal<Voltage> motorVoltage = pivotMotor.getMotorVoltage();
+    private final BaseStatusSignal[] signals = { absolutePosition, motorVoltage };
+
+    public PivotIOTalonFX() {
+        // encoder configs, the offset is applied in updateInputs
+        var encoderConfig = new CANcoderConfiguration();
+        encoderConfig.MagnetSensor.AbsoluteSensorDiscontinuityPoint = 1;
+        DeviceConfigurator.add("Pivot Encoder", pivotEncoder, encoderConfig);
+
+        // Motor configs
+        var motorConfig = new TalonFXConfiguration();
+
+        motorConfig.CurrentLimits.StatorCurrentLimit = 35;
+        motorConfig.CurrentLimits.StatorCurrentLimitEnable = true;
+
+        motorConfig.MotorOutput.NeutralMode = NeutralModeValue.Coast;
+        DeviceConfigurator.add("Pivot Motor", pivotMotor, motorConfig);
+    }
+
+    @Override
+    public void updateInputs(Inputs inputs) {
+        BaseStatusSignal.refreshAll(signals);
+        inputs.angleDegrees = (absolutePosition.getValueAsDouble() * 360.0) - PivotConstants.encoderOffsetDegrees;
+        inputs.motorVoltage = motorVoltage.getValueAsDouble();
+    }
+
+    @Override
+    public void setVoltage(double volts) {
+        pivotMotor.setVoltage(volts);
+    }
+
+    @Override
+    public void stop() {
+        pivotMotor.stopMotor();
+    }
+}
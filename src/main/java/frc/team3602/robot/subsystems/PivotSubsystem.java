@@ -8,22 +8,10 @@ package frc.team3602.robot.subsystems;
 
 import java.util.function.DoubleSupplier;
 
-import com.ctre.phoenix6.Utils;
-import com.ctre.phoenix6.configs.CurrentLimitsConfigs;
-import com.ctre.phoenix6.configs.MagnetSensorConfigs;
-import com.ctre.phoenix6.configs.MotorOutputConfigs;
-import com.ctre.phoenix6.hardware.CANcoder;
-import com.ctre.phoenix6.hardware.TalonFX;
-import com.ctre.phoenix6.signals.NeutralModeValue;
-import com.ctre.phoenix6.sim.TalonFXSimState;
-
 import edu.wpi.first.math.MathUtil;
 import edu.wpi.first.math.controller.ArmFeedforward;
 import edu.wpi.first.math.controller.PIDController;
-import edu.wpi.first.math.system.plant.DCMotor;
 import edu.wpi.first.math.util.Units;
-import edu.wpi.first.wpilibj.TimedRobot;
-import edu.wpi.first.wpilibj.simulation.SingleJointedArmSim;
 import edu.wpi.first.wpilibj.smartdashboard.MechanismLigament2d;
 import edu.wpi.first.wpilibj.smartdashboard.MechanismRoot2d;
 import edu.wpi.first.wpilibj.smartdashboard.SendableChooser;
@@ -33,23 +21,19 @@ import edu.wpi.first.wpilibj.util.Color8Bit;
 import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
 
+import frc.team3602.robot.LoopGovernor;
+import frc.team3602.robot.LoopGovernor.Work;
+import frc.team3602.robot.logging.InputLog;
+import frc.team3602.robot.logging.InputLog.LoggedInputs;
+import frc.team3602.robot.logging.InputLog.LoggedOutput;
 import frc.team3602.robot.Constants.PivotConstants;
 
 public class PivotSubsystem extends SubsystemBase {
 
-    // Motors
-    private final TalonFX pivotMotor = new TalonFX(PivotConstants.kPivotMotorId);
-    private final TalonFXSimState simPivotMotor = new TalonFXSimState(pivotMotor);
-
-    // Encoders, Real and Simulated
-    // private final Encoder pivotEncoder2 = new Encoder(0,1);
-
-    private final CANcoder pivotEncoder = new CANcoder(PivotConstants.kPivotEncoderId);
-
-    private double absoluteOffset = 0.0;
-    private double pivotGearRatio = 12.0 / 1.0;
-
-    private double simPivotEncoder;
+    private final PivotIO io;
+    private final PivotIO.Inputs inputs = new PivotIO.Inputs();
+    private final LoggedInputs loggedInputs = InputLog.inputs("Pivot", inputs);
+    private final LoggedOutput voltageOutput = InputLog.output("Pivot/Voltage");
 
     // Set Point for Pivot
     private double setAngle = 102.0;
@@ -61,26 +45,26 @@ public class PivotSubsystem extends SubsystemBase {
             PivotConstants.KV, PivotConstants.KA);
 
     private double totalEffort;
-
-    // Controls, Simulated
-    private final PIDController simPivotController = new PIDController(PivotConstants.simPivotKP,
-            PivotConstants.simPivotKI, PivotConstants.simPivotKD);
-    private final ArmFeedforward simPivotFeedforward = new ArmFeedforward(PivotConstants.simPivotKS,
-            PivotConstants.simPivotKG, PivotConstants.simPivotKV, PivotConstants.simPivotKA);
-
-    private double simTotalEffort = 0.0;
+    private double pidEffort;
 
     public SendableChooser<Double> pivotAngle = new SendableChooser<>();
 
-    // Simulation
-    public final SingleJointedArmSim pivotSim = new SingleJointedArmSim(DCMotor.getFalcon500(1), PivotConstants.gearing,
-            SingleJointedArmSim.estimateMOI(PivotConstants.lengthMeters, PivotConstants.massKg), 0.2, -12, 24,
-            true, 0);
+    // Visualization
     private DoubleSupplier elevatorVizLength;
     private final MechanismRoot2d pivotRoot;
     private final MechanismLigament2d pivotViz;
 
-    public PivotSubsystem(MechanismRoot2d pivotRoot, DoubleSupplier elevatorVizLength) {
+    /**
+     * @param io                Motor and encoder on the robot, the sim, or
+     *                          nothing when replaying a log
+     * @param pivotRoot         Where the pivot hangs in the elevator's viz
+     * @param elevatorVizLength Length of the elevator in the viz
+     */
+    public PivotSubsystem(PivotIO io, MechanismRoot2d pivotRoot, DoubleSupplier elevatorVizLength) {
+        this.io = io;
+        // Until the first loop reads the CANcoder
+        inputs.angleDegrees = PivotConstants.stowAngle;
+
         // Simulation Initiation
         this.pivotRoot = pivotRoot;
         this.pivotViz = this.pivotRoot
@@ -99,73 +83,73 @@ public class PivotSubsystem extends SubsystemBase {
 
     public Command testPivot(double voltage) {
         return runOnce(() -> {
-            pivotMotor.setVoltage(voltage);
+            io.setVoltage(voltage);
         });
     }
 
     public Command stopPivot() {
         return runOnce(() -> {
-            pivotMotor.stopMotor();
+            io.stop();
         });
     }
 
     // CALCULATIONS
-    private double getEncoderDegrees() {
-        return (pivotEncoder.getAbsolutePosition().getValueAsDouble() * 360.0) - 210; // absoluteOffset
+    /**
+     * @return Angle in degrees as of this loop's periodic, doesn't touch CAN
+     */
+    public double getAngleDegrees() {
+        return inputs.angleDegrees;
     }
 
     public boolean isNearGoal() {
-        return MathUtil.isNear(setAngle, getEncoderDegrees(), PivotConstants.tolerance);
+        return MathUtil.isNear(setAngle, inputs.angleDegrees, PivotConstants.tolerance);
     }
 
     public boolean isStowed() {
-        return getEncoderDegrees() < 35;
-    }
-
-    public double simGetEffort() {
-        return simTotalEffort = ((simPivotFeedforward.calculate(Units.degreesToRadians(simPivotEncoder), 0))
-                + (simPivotController.calculate(simPivotEncoder, setAngle)));
+        return inputs.angleDegrees < 35;
     }
 
     public double getEffort() {
-        return totalEffort = ((pivotFeedforward.calculate(Units.degreesToRadians((getEncoderDegrees())), 0))
-                + (pivotController.calculate(getEncoderDegrees(), setAngle)));
+        pidEffort = pivotController.calculate(inputs.angleDegrees, setAngle);
+        return totalEffort = ((pivotFeedforward.calculate(Units.degreesToRadians((inputs.angleDegrees)), 0))
+                + pidEffort);
     }
 
     public void periodic() {
-
-        if (Utils.isSimulation()) {
-            simPivotEncoder = pivotViz.getAngle();
-            pivotMotor.setVoltage(simGetEffort());
-        } else {
-            if (getEncoderDegrees() > -100) {
-                pivotMotor.setVoltage(getEffort());
-            } else {
-                pivotMotor.setVoltage(-3);
-            }
+        // Everything below only depends on the inputs, so replaying them gives
+        // back the same outputs
+        io.updateInputs(inputs);
+        inputs.goalDegrees = setAngle;
+        loggedInputs.process();
+        setAngle = inputs.goalDegrees;
+
+        double voltage = (inputs.angleDegrees > -100) ? getEffort() : -3.0;
+        io.setVoltage(voltage);
+        voltageOutput.record(voltage);
+
+        if (!LoopGovernor.isEnabled(Work.Dashboard)) {
+            return;
         }
-
-        // Update Simulation
-        pivotSim.setInput(simPivotMotor.getMotorVoltage());
-        pivotSim.update(TimedRobot.kDefaultPeriod);
-        pivotViz.setAngle(Units.radiansToDegrees(pivotSim.getAngleRads()));
-        pivotRoot.setPosition(0.75, (0.1 + elevatorVizLength.getAsDouble()));
-
-        // SmartDashboard.putNumber("Sim Pivot Motor Output",
-        // simPivotMotor.getMotorVoltage());
-        // SmartDashboard.putNumber("Sim Pivot Encoder Deg", simPivotEncoder);
-        // SmartDashboard.putNumber("Sim Pivot PID Effort",
-        // simPivotController.calculate(simPivotEncoder, setAngle));
-
         SmartDashboard.putNumber("Pivot Angle Deg", setAngle);
-        SmartDashboard.putNumber("Pivot Motor Output", pivotMotor.getMotorVoltage().getValueAsDouble());
+        SmartDashboard.putNumber("Pivot Motor Output", inputs.motorVoltage);
         SmartDashboard.putNumber("Pivot FFE Effort",
-                pivotFeedforward.calculate(Units.degreesToRadians(getEncoderDegrees()), 0));
-        SmartDashboard.putNumber("Pivot PID Effort", pivotController.calculate(getEncoderDegrees(), setAngle));
-        SmartDashboard.putNumber("Pivot Encoder ", getEncoderDegrees());
+                pivotFeedforward.calculate(Units.degreesToRadians(inputs.angleDegrees), 0));
+        SmartDashboard.putNumber("Pivot PID Effort", pidEffort);
+        SmartDashboard.putNumber("Pivot Encoder ", inputs.angleDegrees);
         SmartDashboard.putBoolean("pivot near goal", isNearGoal());
     }
 
+    /** Moves the Mechanism2d to the last angle we read. */
+    public void updateViz() {
+        pivotViz.setAngle(inputs.angleDegrees);
+        pivotRoot.setPosition(0.75, (0.1 + elevatorVizLength.getAsDouble()));
+    }
+
+    @Override
+    public void simulationPeriodic() {
+        io.updateSim();
+    }
+
     private void configPivotSubsys() {
         // SmartDashboard.putData("pivot angle", pivotAngle);
         // pivotAngle.setDefaultOption("high stow angle", PivotConstants.highStowAngle);
@@ -174,22 +158,5 @@ public class PivotSubsystem extends SubsystemBase {
         // pivotAngle.addOption("level 4 score angle", PivotConstants.scoreL4Angle);
         // pivotAngle.addOption("level 1-3 score angle",
         // PivotConstants.scoreCoralAngle);
-
-        // encoder configs
-        var magnetSensorConfigs = new MagnetSensorConfigs();
-        magnetSensorConfigs.AbsoluteSensorDiscontinuityPoint = 1;
-        pivotEncoder.getConfigurator().apply(magnetSensorConfigs);
-
-        // Motor configs
-        var motorConfigs = new MotorOutputConfigs();
-        var limitConfigs = new CurrentLimitsConfigs();
-
-        limitConfigs.StatorCurrentLimit = 35;
-        limitConfigs.StatorCurrentLimitEnable = true;
-
-        pivotMotor.getConfigurator().apply(limitConfigs);
-
-        motorConfigs.NeutralMode = NeutralModeValue.Coast;
-        pivotMotor.getConfigurator().apply(motorConfigs);
     }
 }
\ No newline at end of file
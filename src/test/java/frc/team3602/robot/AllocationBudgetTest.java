@@ -0,0 +1,160 @@
+/*
+ * Copyright (C) 2025 Team 3602 All rights reserved. This work is
+ * licensed under the terms of the MIT license which can be found
+ * in the root directory of this project.
+ */
+
+package frc.team3602.robot;
+
+import java.lang.management.ManagementFactory;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+
+import com.sun.management.ThreadMXBean;
+
+import edu.wpi.first.hal.AllianceStationID;
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.RobotController;
+import edu.wpi.first.wpilibj.simulation.DriverStationSim;
+import edu.wpi.first.wpilibj.simulation.SimHooks;
+import edu.wpi.first.wpilibj2.command.Command;
+import edu.wpi.first.wpilibj2.command.CommandScheduler;
+
+import frc.team3602.robot.pathing.AutoLoader.AutoRoutine;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+
+/**
+ * Fails the build when a robot loop allocates more than its budget.
+ * <p>
+ * The robot is built in a headless sim like {@link AutoSimRunner} does and
+ * then run disabled, in teleop and in auto. Each mode is warmed up first so
+ * the JIT and every lazy cache have settled, then we count the bytes the main
+ * thread allocates across each loop: everything robotPeriodic does, the loop
+ * governor, runtime monitor and scheduler included. Threads we don't own, like
+ * odometry and notifiers, aren't counted.
+ * <p>
+ * A mode's budget can be overridden with {@code -Palloc.teleop=4096} and so on.
+ * The defaults are where the robot is today, tighten them as hot paths are
+ * made allocation free so they stay that way.
+ */
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class AllocationBudgetTest {
+  private static final double kLoopPeriod = 0.02;
+  private static final int kWarmupLoops = 250;
+  private static final int kMeasuredLoops = 250;
+
+  /* Average bytes per loop for each mode */
+  private static final long kDisabledBudget = 8 * 1024;
+  private static final long kTeleopBudget = 16 * 1024;
+  private static final long kAutoBudget = 32 * 1024;
+
+  private static final ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+  private static RobotContainer container;
+
+  @BeforeAll
+  static void startRobot() {
+    assertTrue(HAL.initialize(500, 0), "Failed to initialize the HAL");
+    assertTrue(threads.isThreadAllocatedMemorySupported(), "This JVM can't count allocated bytes");
+    threads.setThreadAllocatedMemoryEnabled(true);
+    SimHooks.pauseTiming();
+
+    DriverStationSim.setAllianceStationId(AllianceStationID.Blue1);
+    DriverStationSim.setDsAttached(true);
+    setMode(false, false);
+
+    container = new RobotContainer();
+  }
+
+  @AfterAll
+  static void stopRobot() {
+    CommandScheduler.getInstance().cancelAll();
+    SimHooks.resumeTiming();
+  }
+
+  @Test
+  @Order(1)
+  void disabledIsWithinBudget() {
+    setMode(false, false);
+    measure("disabled", kDisabledBudget);
+  }
+
+  @Test
+  @Order(2)
+  void teleopIsWithinBudget() {
+    setMode(true, false);
+    measure("teleop", kTeleopBudget);
+  }
+
+  @Test
+  @Order(3)
+  void autoIsWithinBudget() {
+    var autos = container.getAutoLoader().getAutos();
+    assumeFalse(autos.isEmpty(), "No autos to measure");
+
+    // The longest auto keeps us in paths the whole time we measure
+    AutoRoutine auto = autos.get(0);
+    for (AutoRoutine candidate : autos) {
+      if (candidate.command().children().size() > auto.command().children().size()) {
+        auto = candidate;
+      }
+    }
+
+    setMode(false, true);
+    Command command = container.getAutoLoader().buildAuto(auto);
+    setMode(true, true);
+    command.schedule();
+    try {
+      measure("auto", kAutoBudget);
+    } finally {
+      command.cancel();
+    }
+  }
+
+  private static void setMode(boolean enabled, boolean autonomous) {
+    DriverStationSim.setAutonomous(autonomous);
+    DriverStationSim.setEnabled(enabled);
+    DriverStationSim.notifyNewData();
+    DriverStation.refreshData();
+  }
+
+  /* Warms a mode up, then checks its average allocation per loop */
+  private static void measure(String mode, long defaultBudget) {
+    long budget = Long.getLong("alloc." + mode, defaultBudget);
+
+    for (int i = 0; i < kWarmupLoops; ++i) {
+      step();
+    }
+
+    long total = 0;
+    long worst = 0;
+    for (int i = 0; i < kMeasuredLoops; ++i) {
+      long before = threads.getCurrentThreadAllocatedBytes();
+      step();
+      long bytes = threads.getCurrentThreadAllocatedBytes() - before;
+      total += bytes;
+      worst = Math.max(worst, bytes);
+    }
+
+    long average = total / kMeasuredLoops;
+    System.out.println(String.format("%-10s %8d B/loop average  %8d B worst  budget %8d B", mode, average, worst,
+        budget));
+    assertTrue(average <= budget, String.format("%s allocates %d B per loop, over its %d B budget", mode,
+        average, budget));
+  }
+
+  /* One robot loop, the same as Robot.robotPeriodic */
+  private static void step() {
+    SimHooks.stepTiming(kLoopPeriod);
+    DriverStation.refreshData();
+    container.robotPeriodic(RobotController.getFPGATime());
+  }
+}